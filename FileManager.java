@@ -1,119 +1,379 @@
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 public class FileManager {
+    // Files at least this large are parsed on all cores
+    private static final long PARALLEL_LOAD_THRESHOLD = 8L << 20;
+    private static final int REPORT_BUFFER_SIZE = 1 << 16;
+    private static final int CSV_BUFFER_SIZE = 1 << 16;
     
-    // Read teams from CSV file
+    // Duration and size of every file read and write, and rejected CSV lines
+    private static final Metrics.Timer CSV_READ_TIMER = Metrics.timer("io.csv.read");
+    private static final Metrics.Counter CSV_READ_BYTES = Metrics.counter("io.csv.read.bytes");
+    private static final Metrics.Counter CSV_PARSE_ERRORS = Metrics.counter("io.csv.parseErrors");
+    private static final Metrics.Timer CSV_WRITE_TIMER = Metrics.timer("io.csv.write");
+    private static final Metrics.Counter CSV_WRITE_BYTES = Metrics.counter("io.csv.write.bytes");
+    private static final Metrics.Timer SNAPSHOT_READ_TIMER = Metrics.timer("io.snapshot.read");
+    private static final Metrics.Counter SNAPSHOT_READ_BYTES = Metrics.counter("io.snapshot.read.bytes");
+    private static final Metrics.Timer SNAPSHOT_WRITE_TIMER = Metrics.timer("io.snapshot.write");
+    private static final Metrics.Counter SNAPSHOT_WRITE_BYTES = Metrics.counter("io.snapshot.write.bytes");
+    private static final Metrics.Timer REPORT_WRITE_TIMER = Metrics.timer("io.report.write");
+    private static final Metrics.Counter REPORT_WRITE_BYTES = Metrics.counter("io.report.write.bytes");
+    
+    // Follows a load as it runs (called on the loading thread). Throwing a
+    // CancellationException from progress() stops the load.
+    public interface LoadListener {
+        // A team parsed from the CSV file was added to the list
+        void teamLoaded(Team team);
+        
+        // Bytes of the file processed so far
+        void progress(long done, long total);
+    }
+    
+    // Binary snapshot kept next to a CSV file (HackathonTeams.csv -> HackathonTeams.snapshot)
+    public static String snapshotFileFor(String csvFilename) {
+        String base = csvFilename.toLowerCase().endsWith(".csv")
+                ? csvFilename.substring(0, csvFilename.length() - 4) : csvFilename;
+        return base + ".snapshot";
+    }
+    
+    // Load teams, starting from the binary snapshot when it is newer than the
+    // CSV file. Otherwise the CSV is parsed and a fresh snapshot is written.
+    public static TeamList readTeams(String csvFilename) {
+        return readTeams(csvFilename, null);
+    }
+    
+    // Load teams, reporting progress to a listener (which may be null). Teams
+    // from a snapshot arrive all at once, so only a final progress call is made.
+    public static TeamList readTeams(String csvFilename, LoadListener listener) {
+        String snapshotFile = snapshotFileFor(csvFilename);
+        if (isNewer(snapshotFile, csvFilename)) {
+            try {
+                HackathonEvents.FileRead event = new HackathonEvents.FileRead();
+                event.begin();
+                long start = System.nanoTime();
+                TeamList teamList = new TeamList(TeamSnapshot.read(snapshotFile));
+                SNAPSHOT_READ_TIMER.recordSince(start);
+                SNAPSHOT_READ_BYTES.add(new File(snapshotFile).length());
+                commitRead(event, snapshotFile, "snapshot", teamList.size(), 0);
+                System.out.println("Successfully loaded " + teamList.size() + " teams from " + snapshotFile);
+                if (listener != null) {
+                    long size = new File(snapshotFile).length();
+                    listener.progress(size, size);
+                }
+                return teamList;
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Ignoring snapshot " + snapshotFile + ": " + e.getMessage());
+            }
+        }
+        
+        // The snapshot is only written from a complete read: after an I/O
+        // error the list holds part of the file at best, and a snapshot of it
+        // would shadow the real data on the next start
+        TeamList teamList = new TeamList();
+        if (readTeamsFromCSV(csvFilename, new File(csvFilename).length() >= PARALLEL_LOAD_THRESHOLD, listener, teamList)) {
+            writeSnapshot(csvFilename, teamList);
+        }
+        return teamList;
+    }
+    
+    // Write the binary snapshot for a CSV file
+    public static boolean writeSnapshot(String csvFilename, TeamList teamList) {
+        return writeSnapshot(csvFilename, teamList.getStore());
+    }
+    
+    public static boolean writeSnapshot(String csvFilename, TeamStore store) {
+        Path snapshotFile = Path.of(snapshotFileFor(csvFilename));
+        Path tempFile = null;
+        HackathonEvents.FileWrite event = new HackathonEvents.FileWrite();
+        event.begin();
+        try {
+            long start = System.nanoTime();
+            tempFile = tempFileFor(snapshotFile);
+            TeamSnapshot.write(tempFile.toString(), store);
+            long bytes = Files.size(tempFile);
+            replaceFile(tempFile, snapshotFile);
+            SNAPSHOT_WRITE_TIMER.recordSince(start);
+            SNAPSHOT_WRITE_BYTES.add(bytes);
+            commitWrite(event, snapshotFile.toString(), "snapshot", store.size(), bytes, true);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing snapshot: " + e.getMessage());
+            deleteQuietly(tempFile);
+            commitWrite(event, snapshotFile.toString(), "snapshot", store.size(), 0, false);
+            return false;
+        }
+    }
+    
+    // Fill in and commit a flight recorder event - only when a recording wants it
+    private static void commitRead(HackathonEvents.FileRead event, String path, String format,
+                                   int teams, int rejectedLines) {
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.format = format;
+            event.teams = teams;
+            event.bytes = new File(path).length();
+            event.rejectedLines = rejectedLines;
+            event.commit();
+        }
+    }
+    
+    private static void commitWrite(HackathonEvents.FileWrite event, String path, String format,
+                                    int teams, long bytes, boolean succeeded) {
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.format = format;
+            event.teams = teams;
+            event.bytes = bytes;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+    
+    // Temporary file in the same directory as the target, so it can be renamed over it
+    private static Path tempFileFor(Path target) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        // Keep the permissions of the file being replaced (temp files are private)
+        try {
+            if (Files.exists(target)) {
+                Files.setPosixFilePermissions(tempFile, Files.getPosixFilePermissions(target));
+            }
+        } catch (UnsupportedOperationException | IOException e) {
+            // not a POSIX file system - keep the defaults
+        }
+        return tempFile;
+    }
+    
+    // Flush a fully written temporary file to disk and rename it over the target.
+    // Readers (and a crash) see either the old file or the new one, never half of it.
+    private static void replaceFile(Path tempFile, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // nothing more to do
+            }
+        }
+    }
+    
+    // Open the edit journal for a CSV file, replaying its changes into the team list.
+    // Returns null (edits are then only saved explicitly) if it cannot be opened.
+    public static TeamJournal openJournal(String csvFilename, TeamList teamList) {
+        String journalFile = TeamJournal.journalFileFor(csvFilename);
+        try {
+            return TeamJournal.open(journalFile, teamList);
+        } catch (IOException e) {
+            System.err.println("Error opening journal " + journalFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static boolean isNewer(String filename, String thanFilename) {
+        try {
+            Path file = Path.of(filename);
+            Path than = Path.of(thanFilename);
+            if (!Files.exists(file)) {
+                return false;
+            }
+            return !Files.exists(than)
+                    || Files.getLastModifiedTime(file).compareTo(Files.getLastModifiedTime(than)) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    // Read teams from CSV file (large files are parsed in parallel)
     public static TeamList readTeamsFromCSV(String filename) {
+        File file = new File(filename);
+        return readTeamsFromCSV(filename, file.length() >= PARALLEL_LOAD_THRESHOLD);
+    }
+    
+    // Read teams from CSV file, optionally parsing chunks of it in parallel.
+    // Both modes produce the same teams in the same order.
+    public static TeamList readTeamsFromCSV(String filename, boolean parallel) {
+        return readTeamsFromCSV(filename, parallel, null);
+    }
+    
+    public static TeamList readTeamsFromCSV(String filename, boolean parallel, LoadListener listener) {
         TeamList teamList = new TeamList();
+        readTeamsFromCSV(filename, parallel, listener, teamList);
+        return teamList;
+    }
+    
+    // Read teams from a CSV file into a list. Returns whether the whole file
+    // was read: false if it is missing or an I/O error stopped the read part
+    // way (lines rejected by the parser still count as a complete read).
+    private static boolean readTeamsFromCSV(String filename, boolean parallel, LoadListener listener, TeamList teamList) {
+        // Handler calls arrive one at a time, even when parsing in parallel
+        int[] rejectedLines = new int[1];
+        HackathonEvents.FileRead event = new HackathonEvents.FileRead();
+        event.begin();
+        long start = System.nanoTime();
         
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            boolean firstLine = true;
-            
-            while ((line = br.readLine()) != null) {
-                // Skip header line
-                if (firstLine) {
-                    firstLine = false;
-                    continue;
+        try {
+            TeamCsvParser.parseFile(filename, new TeamCsvParser.Handler() {
+                @Override
+                public void team(Team team) {
+                    teamList.addTeam(team);
+                    if (listener != null) {
+                        listener.teamLoaded(team);
+                    }
                 }
                 
-                try {
-                    Team team = parseTeamLine(line);
-                    if (team != null) {
-                        teamList.addTeam(team);
-                    }
-                } catch (Exception e) {
+                @Override
+                public void error(String line, Exception e) {
+                    CSV_PARSE_ERRORS.increment();
+                    rejectedLines[0]++;
                     System.err.println("Error parsing line: " + line);
                     System.err.println("Error: " + e.getMessage());
                 }
-            }
+                
+                @Override
+                public void progress(long bytesDone, long totalBytes) {
+                    if (listener != null) {
+                        listener.progress(bytesDone, totalBytes);
+                    }
+                }
+            }, parallel);
+            CSV_READ_TIMER.recordSince(start);
+            CSV_READ_BYTES.add(new File(filename).length());
+            commitRead(event, filename, "csv", teamList.size(), rejectedLines[0]);
             
             System.out.println("Successfully loaded " + teamList.size() + " teams from " + filename);
-            
-        } catch (FileNotFoundException e) {
+            return true;
+        } catch (NoSuchFileException e) {
             System.err.println("File not found: " + filename);
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
         }
-        
-        return teamList;
+        return false;
     }
     
-    // Parse a single line from CSV
-    private static Team parseTeamLine(String line) {
-        String[] parts = line.split(",");
-        
-        if (parts.length < 4) {
-            throw new IllegalArgumentException("Invalid line format: needs at least 4 fields");
-        }
-        
-        int teamNumber = Integer.parseInt(parts[0].trim());
-        String teamName = parts[1].trim();
-        String universityName = parts[2].trim();
-        String category = parts[3].trim();
-        
-        // Parse scores (remaining fields)
-        int[] scores = new int[parts.length - 4];
-        for (int i = 4; i < parts.length; i++) {
-            scores[i - 4] = Integer.parseInt(parts[i].trim());
-        }
-        
-        // Create appropriate team type based on category
-        switch (category.toLowerCase()) {
-            case "cybersecurity":
-                return new CybersecurityTeam(teamNumber, teamName, universityName, scores);
-            case "artificial intelligence":
-            case "ai":
-                return new AITeam(teamNumber, teamName, universityName, scores);
-            case "web development":
-            case "web":
-                return new WebDevTeam(teamNumber, teamName, universityName, scores);
-            case "mobile development":
-            case "mobile":
-                return new MobileAppTeam(teamNumber, teamName, universityName, scores);
-            default:
-                // Default to Mobile team for unknown categories
-                return new MobileAppTeam(teamNumber, teamName, universityName, scores);
+    // Quote a CSV field if it contains a comma, quote or surrounding spaces
+    private static String csvField(String value) {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || (!value.isEmpty() && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' '));
+        if (!needsQuotes) {
+            return value;
         }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
     }
     
     // Write report to text file
     public static boolean writeReportToFile(String filename, String report) {
+        HackathonEvents.FileWrite event = new HackathonEvents.FileWrite();
+        event.begin();
+        long start = System.nanoTime();
         try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
             writer.print(report);
+            writer.flush();
+            long bytes = new File(filename).length();
+            REPORT_WRITE_TIMER.recordSince(start);
+            REPORT_WRITE_BYTES.add(bytes);
+            commitWrite(event, filename, "report", 0, bytes, true);
             System.out.println("Report successfully written to " + filename);
             return true;
         } catch (IOException e) {
             System.err.println("Error writing report to file: " + e.getMessage());
+            commitWrite(event, filename, "report", 0, 0, false);
+            return false;
+        }
+    }
+    
+    // Stream a report straight to a buffered file channel - the report is
+    // never held in memory as one String, however many teams there are
+    public static boolean writeReportToFile(String filename, TeamList teamList) {
+        HackathonEvents.FileWrite event = new HackathonEvents.FileWrite();
+        event.begin();
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(Path.of(filename),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, Charset.defaultCharset()), REPORT_BUFFER_SIZE)) {
+            teamList.writeReport(writer);
+            writer.flush();
+            REPORT_WRITE_TIMER.recordSince(start);
+            REPORT_WRITE_BYTES.add(channel.size());
+            commitWrite(event, filename, "report", teamList.size(), channel.size(), true);
+            System.out.println("Report successfully written to " + filename);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing report to file: " + e.getMessage());
+            commitWrite(event, filename, "report", teamList.size(), 0, false);
             return false;
         }
     }
     
     // Write teams to CSV file
     public static boolean writeTeamsToCSV(String filename, TeamList teamList) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            // Write header
-            writer.println("TeamNumber,TeamName,University,Category,Score1,Score2,Score3,Score4,Score5");
-            
-            // Write team data
-            for (Team team : teamList.getAllTeams()) {
-                writer.print(team.getTeamNumber() + ",");
-                writer.print(team.getTeamName() + ",");
-                writer.print(team.getUniversityName() + ",");
-                writer.print(team.getCategory());
+        return writeTeamsToCSV(filename, teamList.getStore());
+    }
+    
+    // Write teams to CSV file straight from the store's columns, in UTF-8 (what
+    // TeamCsvParser reads, whatever the platform's default charset). The teams go to a
+    // temporary file that then replaces the CSV, so a crash never leaves it half written.
+    public static boolean writeTeamsToCSV(String filename, TeamStore store) {
+        Path target = Path.of(filename);
+        Path tempFile = null;
+        HackathonEvents.FileWrite event = new HackathonEvents.FileWrite();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            tempFile = tempFileFor(target);
+            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(tempFile), StandardCharsets.UTF_8), CSV_BUFFER_SIZE))) {
+                // Write header
+                writer.println("TeamNumber,TeamName,University,Category,Score1,Score2,Score3,Score4,Score5");
                 
-                int[] scores = team.getScoreArray();
-                for (int score : scores) {
-                    writer.print("," + score);
+                // Write team data
+                for (int slot = 0; slot < store.size(); slot++) {
+                    writer.print(store.getTeamNumber(slot) + ",");
+                    writer.print(csvField(store.getTeamName(slot)) + ",");
+                    writer.print(csvField(store.getUniversityName(slot)) + ",");
+                    writer.print(store.getCategory(slot));
+                    
+                    for (int i = 0; i < store.getScoreCount(slot); i++) {
+                        writer.print("," + store.getScore(slot, i));
+                    }
+                    writer.println();
+                }
+                
+                if (writer.checkError()) {
+                    throw new IOException("write to " + tempFile + " failed");
                 }
-                writer.println();
             }
+            long bytes = Files.size(tempFile);
+            replaceFile(tempFile, target);
+            CSV_WRITE_TIMER.recordSince(start);
+            CSV_WRITE_BYTES.add(bytes);
+            commitWrite(event, filename, "csv", store.size(), bytes, true);
             
             System.out.println("Teams successfully written to " + filename);
             return true;
         } catch (IOException e) {
             System.err.println("Error writing teams to file: " + e.getMessage());
+            deleteQuietly(tempFile);
+            commitWrite(event, filename, "csv", store.size(), 0, false);
             return false;
         }
     }
@@ -125,7 +385,7 @@ public class FileManager {
             return; // Don't overwrite existing file
         }
         
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename, StandardCharsets.UTF_8))) {
             writer.println("TeamNumber,TeamName,University,Category,Score1,Score2,Score3,Score4,Score5");
             writer.println("101,Cyber Titans,MIT,Cybersecurity,3,4,3,4,4");
             writer.println("102,AI Innovators,Stanford,Artificial Intelligence,5,4,5,4,3");
@@ -0,0 +1,320 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+// Quick benchmarks for the hot paths: CSV load and save, each team type's
+// scoring formula, statistics, ranking, the table sort orders, name search
+// and the full report.
+// Every benchmark runs on generated datasets of each size; the timings are
+// printed and written to a CSV file so two runs (e.g. two releases) can be
+// compared with the compare mode.
+//
+// This runs everything in one JVM with millisecond timing, which is fine for
+// spotting big changes from a plain javac build. For reliable numbers - one
+// forked JVM per benchmark, ns/op - use the JMH suite in benchmarks/.
+//
+//   java HackathonBenchmark [sizes] [results file] [warmup runs] [measured runs]
+//   java HackathonBenchmark 1000,100000,1000000 benchmark-results.csv 3 5
+//   java HackathonBenchmark compare old-results.csv new-results.csv
+public class HackathonBenchmark {
+    private static final String RESULTS_HEADER = "benchmark,teams,runs,mean_ms,min_ms,max_ms,stddev_ms";
+    private static final String[] CATEGORIES = {"Cybersecurity", "Artificial Intelligence", "Web Development", "Mobile Development"};
+    private static final String[] WORDS = {"Cyber", "Data", "Code", "Byte", "Quantum", "Neural", "Cloud", "Pixel",
+                                           "Titans", "Ninjas", "Wizards", "Hackers", "Builders", "Minds", "Squad", "Labs"};
+    private static final String[] UNIVERSITIES = {"MIT", "Stanford", "Harvard", "Berkeley", "Oxford", "Cambridge",
+                                                  "ETH Zurich", "Caltech", "Princeton", "Yale", "Brown", "Cornell"};
+
+    // Keeps results alive so the JIT cannot drop the work being measured
+    private static volatile long sink;
+
+    // FileManager reports every load and save on System.out; that is muted while timing
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream MUTED = new PrintStream(OutputStream.nullOutputStream());
+
+    private final int warmupRuns;
+    private final int measuredRuns;
+    private final List<String> results = new ArrayList<>();
+
+    // A piece of work to time; returns something derived from its result
+    private interface Benchmark {
+        long run() throws Exception;
+    }
+
+    private HackathonBenchmark(int warmupRuns, int measuredRuns) {
+        this.warmupRuns = warmupRuns;
+        this.measuredRuns = measuredRuns;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            if (args.length < 3) {
+                System.out.println("Usage: java HackathonBenchmark compare <old results> <new results>");
+                return;
+            }
+            compare(Path.of(args[1]), Path.of(args[2]));
+            return;
+        }
+
+        String sizes = args.length > 0 ? args[0] : "1000,100000,1000000";
+        Path resultsFile = Path.of(args.length > 1 ? args[1] : "benchmark-results.csv");
+        int warmupRuns = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int measuredRuns = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        HackathonBenchmark benchmark = new HackathonBenchmark(warmupRuns, measuredRuns);
+        Path dir = Files.createTempDirectory("hackathon-bench");
+        try {
+            for (String size : sizes.split(",")) {
+                benchmark.runAll(Integer.parseInt(size.trim()), dir);
+            }
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(RESULTS_HEADER);
+        lines.addAll(benchmark.results);
+        Files.write(resultsFile, lines, StandardCharsets.UTF_8);
+        System.out.println("Results written to " + resultsFile);
+    }
+
+    private void runAll(int teams, Path dir) throws Exception {
+        System.out.printf("%n%,d teams%n", teams);
+        Path csv = dir.resolve("teams-" + teams + ".csv");
+        Path output = dir.resolve("out-" + teams + ".csv");
+        generateDataset(csv, teams);
+
+        measure("csv.read", teams, () -> FileManager.readTeamsFromCSV(csv.toString()).size());
+
+        System.setOut(MUTED);
+        TeamList list = FileManager.readTeamsFromCSV(csv.toString());
+        System.setOut(CONSOLE);
+        TeamListSnapshot snapshot = list.snapshot();
+        TeamStore store = snapshot.getStore();
+
+        measure("csv.write", teams, () -> FileManager.writeTeamsToCSV(output.toString(), store) ? 1 : 0);
+
+        // The formulas themselves - getOverallScore would return the cached value
+        for (byte kind = TeamStore.CYBERSECURITY; kind <= TeamStore.MOBILE; kind++) {
+            Team[] sample = new Team[teams];
+            for (int i = 0; i < teams; i++) {
+                sample[i] = TeamStore.newTeam(kind, i, "T", "U", store.getScores(i));
+            }
+            String name = "score." + sample[0].getClass().getSimpleName();
+            measure(name, teams, () -> {
+                double sum = 0;
+                for (Team team : sample) {
+                    sum += team.calculateOverallScore();
+                }
+                return (long) sum;
+            });
+        }
+
+        // The same formulas as one batch over packed scores, per category and mixed
+        int stride = store.getStride();
+        byte[] packed = new byte[teams * stride];
+        byte[] counts = new byte[teams];
+        byte[] kinds = new byte[teams];
+        for (int i = 0; i < teams; i++) {
+            for (int p = 0; p < store.getScoreCount(i); p++) {
+                packed[i * stride + p] = (byte) store.getScore(i, p);
+            }
+            counts[i] = (byte) store.getScoreCount(i);
+            kinds[i] = store.getKind(i);
+        }
+        double[] overall = new double[teams];
+        for (byte kind = TeamStore.CYBERSECURITY; kind <= TeamStore.MOBILE; kind++) {
+            byte batchKind = kind;
+            String name = "batch." + TeamStore.newTeam(kind, 0, "T", "U", new int[0]).getClass().getSimpleName();
+            measure(name, teams, () -> {
+                ScoringEngine.scoreBatch(batchKind, packed, stride, counts, 0, teams, overall);
+                return (long) overall[teams - 1];
+            });
+        }
+        measure("batch.mixed", teams, () -> {
+            ScoringEngine.scoreAll(kinds, packed, stride, counts, teams, overall);
+            return (long) overall[teams - 1];
+        });
+
+        ScoreHistogram histogram = snapshot.getScoreHistogram();
+        measure("list.statistics", teams, () -> TeamStatistics.compute(store, histogram).getTeamCount());
+        measure("list.categoryCount", teams, () -> list.getCategoryCount().size());
+        measure("list.rank", teams, () -> new TeamList(store.copy()).snapshot().size());
+
+        measure("sort.teamNumber", teams, () -> snapshot.getSlotsByTeamNumber(null).length);
+        measure("sort.teamName", teams, () -> snapshot.getSlotsByTeamName(null).length);
+        measure("sort.overallScore", teams, () -> snapshot.getSlotsByOverallScore(null).length);
+
+        // Refreshing a name-sorted table after an edit: the kept orders merge a
+        // re-added team in one pass and aren't touched by a score change
+        Team edited = list.findTeamByNumber(100 + teams / 2);
+        measure("sort.afterEdit", teams, () -> {
+            list.removeTeam(edited.getTeamNumber());
+            list.addTeam(edited);
+            return list.snapshot().getSortedSlots(null, TeamListSnapshot.SortKey.TEAM_NAME).length;
+        });
+        measure("sort.afterScores", teams, () -> {
+            list.updateScores(edited.getTeamNumber(), edited.getScoreArray());
+            return list.snapshot().getSortedSlots(null, TeamListSnapshot.SortKey.TEAM_NAME).length;
+        });
+
+        // A read after every edit, as autosave and the table refresh do
+        measure("snapshot.afterScores", teams, () -> {
+            list.updateScores(edited.getTeamNumber(), edited.getScoreArray());
+            return list.snapshot().getStore().size();
+        });
+        measure("snapshot.afterScoresRanked", teams, () -> {
+            list.updateScores(edited.getTeamNumber(), edited.getScoreArray());
+            return list.snapshot().getTopTeams(10).size();
+        });
+        
+        // Name search: whole word, prefix, substring, typo and two words at once
+        measure("search.word", teams, () -> list.searchTeams("quantum", 25).size());
+        measure("search.prefix", teams, () -> list.searchTeams("quan", 25).size());
+        measure("search.substring", teams, () -> list.searchTeams("izard", 25).size());
+        measure("search.typo", teams, () -> list.searchTeams("stanfrod", 25).size());
+        measure("search.words", teams, () -> list.searchTeams("ninjas oxford", 25).size());
+
+        measure("report", teams, () -> {
+            CountingWriter out = new CountingWriter();
+            snapshot.writeReport(out);
+            return out.count;
+        });
+    }
+
+    // Time warmup + measured runs of one benchmark and record the measured ones
+    private void measure(String name, int teams, Benchmark benchmark) throws Exception {
+        double[] times = new double[measuredRuns];
+        System.setOut(MUTED);
+        try {
+            for (int i = 0; i < warmupRuns; i++) {
+                sink += benchmark.run();
+            }
+            for (int i = 0; i < measuredRuns; i++) {
+                long start = System.nanoTime();
+                sink += benchmark.run();
+                times[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        } finally {
+            System.setOut(CONSOLE);
+        }
+
+        double sum = 0;
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (double time : times) {
+            sum += time;
+            min = Math.min(min, time);
+            max = Math.max(max, time);
+        }
+        double mean = sum / times.length;
+        double variance = 0;
+        for (double time : times) {
+            variance += (time - mean) * (time - mean);
+        }
+        double stddev = times.length > 1 ? Math.sqrt(variance / (times.length - 1)) : 0;
+
+        System.out.printf("  %-28s %12.3f ms  (min %.3f, max %.3f, sd %.3f)%n", name, mean, min, max, stddev);
+        results.add(String.format(Locale.ROOT, "%s,%d,%d,%.4f,%.4f,%.4f,%.4f",
+                name, teams, times.length, mean, min, max, stddev));
+    }
+
+    // Deterministic dataset: the same size always gives the same file (also
+    // used by the JMH benchmarks in benchmarks/)
+    public static void generateDataset(Path csv, int teams) throws IOException {
+        Random random = new Random(teams);
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("TeamNumber,TeamName,University,Category,Score1,Score2,Score3,Score4,Score5\n");
+            for (int i = 0; i < teams; i++) {
+                out.write(Integer.toString(100 + i));
+                out.write(',');
+                out.write(WORDS[random.nextInt(WORDS.length)]);
+                out.write(' ');
+                out.write(WORDS[random.nextInt(WORDS.length)]);
+                out.write(' ');
+                out.write(Integer.toString(i));
+                out.write(',');
+                out.write(UNIVERSITIES[random.nextInt(UNIVERSITIES.length)]);
+                out.write(',');
+                out.write(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                for (int s = 0; s < 5; s++) {
+                    out.write(',');
+                    out.write('0' + random.nextInt(TeamStatistics.MAX_SCORE + 1));
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    // Print the change in mean time for every benchmark found in both files
+    private static void compare(Path oldFile, Path newFile) throws IOException {
+        Map<String, Double> oldMeans = readMeans(oldFile);
+        Map<String, Double> newMeans = readMeans(newFile);
+        System.out.printf("%-40s %16s %16s %9s%n", "benchmark / teams", "old", "new", "change");
+        for (Map.Entry<String, Double> entry : newMeans.entrySet()) {
+            Double oldMean = oldMeans.get(entry.getKey());
+            if (oldMean == null) {
+                continue;
+            }
+            double change = oldMean == 0 ? 0 : (entry.getValue() - oldMean) / oldMean * 100;
+            System.out.printf("%-40s %16.3f %16.3f %+8.1f%%%n", entry.getKey(), oldMean, entry.getValue(), change);
+        }
+    }
+
+    // benchmark/teams -> mean time from a results file: this class's own (ms)
+    // or the JMH suite's -rf csv output (ns/op)
+    private static Map<String, Double> readMeans(Path file) throws IOException {
+        Map<String, Double> means = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.replace("\"", "").split(",");
+            if (line.equals(RESULTS_HEADER) || fields.length < 4 || fields[0].equals("Benchmark")) {
+                continue;
+            }
+            if (line.startsWith("\"")) {
+                // Benchmark,Mode,Threads,Samples,Score,Error,Unit,Param: teams,Param: workload
+                means.put(fields[8] + " / " + fields[7], Double.parseDouble(fields[4]));
+            } else {
+                means.put(fields[0] + " / " + fields[1], Double.parseDouble(fields[3]));
+            }
+        }
+        return means;
+    }
+
+    // Discards the report, counting characters so the work is not optimised away
+    private static class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String s) {
+            count += s.length();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
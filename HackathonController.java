@@ -1,6 +1,8 @@
 import javax.swing.*;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 // Controller - handles interaction between Model and View
 public class HackathonController {
@@ -8,6 +10,28 @@ public class HackathonController {
     private HackathonMainView view;
     private static final String DEFAULT_CSV_FILE = "HackathonTeams.csv";
     private static final String REPORT_FILE = "HackathonReport.txt";
+    private static final int AUTOSAVE_INTERVAL_MS = 30_000;
+    
+    // Teams handed to the table at a time while loading, and how many are
+    // shown before the load finishes (the full, sorted table follows at the end)
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final int LOAD_PREVIEW_ROWS = 10_000;
+    
+    // Name matches shown by a search
+    private static final int SEARCH_LIMIT = 25;
+    
+    // Latency of each user action
+    private static final Metrics.Timer INITIALIZE_TIMER = Metrics.timer("controller.initialize");
+    private static final Metrics.Timer REFRESH_TIMER = Metrics.timer("controller.refreshTeamsTable");
+    private static final Metrics.Timer SEARCH_TIMER = Metrics.timer("controller.searchTeam");
+    private static final Metrics.Timer SAVE_CHANGES_TIMER = Metrics.timer("controller.saveTeamChanges");
+    private static final Metrics.Timer REPORT_TIMER = Metrics.timer("controller.generateReport");
+    private static final Metrics.Timer CLOSE_SAVE_TIMER = Metrics.timer("controller.handleClose.save");
+    
+    // Fires on the EDT; the model saves a snapshot of the teams on its own thread
+    private Timer autosaveTimer;
+    private LoadWorker loadWorker;
+    private long loadStart;
     
     public HackathonController(HackathonModel model) {
         this.model = model;
@@ -17,13 +41,55 @@ public class HackathonController {
         this.view = view;
     }
     
-    // Initialize application
+    // Initialize application - teams load on a background worker so the window
+    // stays responsive, and the table fills in while the file is read
     public void initialize() {
-        // Create sample CSV file if it doesn't exist
-        FileManager.createSampleCSVFile(DEFAULT_CSV_FILE);
+        loadStart = System.nanoTime();
+        String category = view != null ? view.getSelectedCategory() : "All";
+        loadWorker = new LoadWorker(DEFAULT_CSV_FILE, category);
+        if (view != null) {
+            view.showLoading(true);
+            loadWorker.addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    view.setLoadProgress((Integer) e.getNewValue());
+                }
+            });
+        }
+        loadWorker.execute();
+    }
+    
+    // Stop a load that is still running; the model keeps its previous teams
+    public void cancelLoading() {
+        if (loadWorker != null) {
+            loadWorker.cancel(false);
+        }
+    }
+    
+    // True once teams have been loaded, so edits have a file to be saved to
+    public boolean isLoaded() {
+        return model.isLoaded();
+    }
+    
+    // Called on the EDT once loading has finished, failed or been cancelled
+    private void loadFinished(LoadWorker worker) {
+        if (view != null) {
+            view.showLoading(false);
+        }
+        try {
+            worker.get();
+        } catch (CancellationException e) {
+            System.out.println("Loading cancelled");
+            loadAbandoned("Loading was cancelled.");
+            return;
+        } catch (InterruptedException | ExecutionException e) {
+            loadAbandoned("Failed to load teams: " + e.getMessage());
+            return;
+        }
+        INITIALIZE_TIMER.recordSince(loadStart);
         
-        // Load teams from CSV
-        model.loadTeamsFromFile(DEFAULT_CSV_FILE);
+        // Save in the background whenever something changed
+        autosaveTimer = new Timer(AUTOSAVE_INTERVAL_MS, e -> model.autosave());
+        autosaveTimer.start();
         
         // Refresh view
         if (view != null) {
@@ -32,62 +98,161 @@ public class HackathonController {
         }
     }
     
-    // Refresh teams table
-    public void refreshTeamsTable() {
-        String category = view.getSelectedCategory();
-        String sortOption = view.getSelectedSortOption();
+    // After a cancelled or failed load: drop the rows shown while loading (the
+    // model kept its previous teams), and if there are none, offer to try
+    // again or quit - the editing tabs stay disabled until a load succeeds
+    private void loadAbandoned(String message) {
+        if (view == null) {
+            return;
+        }
+        refreshTeamsTable();
+        if (model.isLoaded()) {
+            JOptionPane.showMessageDialog(view, message, "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Object[] options = {"Retry", "Exit"};
+        int option = JOptionPane.showOptionDialog(view, 
+            message + "\nNo teams are loaded, so they can't be edited yet.", 
+            "Load Teams", 
+            JOptionPane.YES_NO_OPTION, 
+            JOptionPane.WARNING_MESSAGE, 
+            null, options, options[0]);
+        if (option == 0) {
+            initialize();
+        } else if (option == 1) {
+            System.exit(0);
+        }
+    }
+    
+    // Loads the teams off the EDT, publishing the first rows in batches
+    private class LoadWorker extends SwingWorker<Void, List<Team>> implements FileManager.LoadListener {
+        private final String filename;
+        private final String category;
+        private List<Team> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        private int previewRows;
         
-        ArrayList<Team> teams;
+        LoadWorker(String filename, String category) {
+            this.filename = filename;
+            this.category = category;
+        }
         
-        // Filter by category
-        if ("All".equals(category)) {
-            teams = model.getAllTeams();
-        } else {
-            teams = model.getTeamsByCategory(category);
+        @Override
+        protected Void doInBackground() {
+            // Create sample CSV file if it doesn't exist
+            FileManager.createSampleCSVFile(filename);
+            model.loadTeamsFromFile(filename, this);
+            return null;
         }
         
-        // Sort teams
-        sortTeams(teams, sortOption);
+        @Override
+        public void teamLoaded(Team team) {
+            if (previewRows == LOAD_PREVIEW_ROWS
+                    || !("All".equals(category) || category.equalsIgnoreCase(team.getCategory()))) {
+                return;
+            }
+            batch.add(team);
+            previewRows++;
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                publish(batch);
+                batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            }
+        }
+        
+        @Override
+        public void progress(long done, long total) {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            if (!batch.isEmpty()) {
+                publish(batch);
+                batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            }
+            setProgress(total == 0 ? 100 : (int) (done * 100 / total));
+        }
         
-        // Prepare data for table
-        Object[][] data = new Object[teams.size()][5];
-        for (int i = 0; i < teams.size(); i++) {
-            Team team = teams.get(i);
-            data[i][0] = team.getTeamNumber();
-            data[i][1] = team.getTeamName();
-            data[i][2] = team.getUniversityName();
-            data[i][3] = team.getCategory();
-            data[i][4] = String.format("%.2f", team.getOverallScore());
+        @Override
+        protected void process(List<List<Team>> batches) {
+            if (view != null && !isCancelled()) {
+                for (List<Team> teams : batches) {
+                    view.appendLoadingTeams(teams);
+                }
+            }
         }
         
-        view.updateTeamsTable(data);
+        @Override
+        protected void done() {
+            loadFinished(this);
+        }
     }
     
-    // Sort teams based on selected option
-    private void sortTeams(ArrayList<Team> teams, String sortOption) {
+    // Refresh teams table - the table reads its cells from a snapshot of the
+    // teams through a slot order, so nothing is copied or formatted up front
+    public void refreshTeamsTable() {
+        HackathonEvents.ViewRefresh event = new HackathonEvents.ViewRefresh();
+        event.begin();
+        long start = System.nanoTime();
+        String category = view.getSelectedCategory();
+        String sortOption = view.getSelectedSortOption();
+        
+        TeamListSnapshot snapshot = model.getSnapshot();
+        String filter = "All".equals(category) ? null : category;
+        
+        TeamListSnapshot.SortKey sortKey;
         switch (sortOption) {
-            case "Team Number":
-                teams.sort(Comparator.comparingInt(Team::getTeamNumber));
-                break;
             case "Team Name":
-                teams.sort(Comparator.comparing(Team::getTeamName));
+                sortKey = TeamListSnapshot.SortKey.TEAM_NAME;
                 break;
             case "Overall Score":
-                teams.sort((t1, t2) -> Double.compare(t2.getOverallScore(), t1.getOverallScore()));
+                sortKey = TeamListSnapshot.SortKey.OVERALL_SCORE;
                 break;
+            default:
+                sortKey = TeamListSnapshot.SortKey.TEAM_NUMBER;
+        }
+        // Orders are kept sorted across changes and cached per snapshot, so
+        // refreshing or switching the sort option doesn't sort anything
+        int[] slots = snapshot.getSortedSlots(filter, sortKey);
+        
+        view.showTeams(snapshot.getStore(), slots);
+        REFRESH_TIMER.recordSince(start);
+        if (event.shouldCommit()) {
+            event.view = "teams";
+            event.category = category;
+            event.sortOption = sortOption;
+            event.rows = slots.length;
+            event.teams = snapshot.size();
+            event.commit();
         }
     }
     
-    // Search team by number
-    public void searchTeam(int teamNumber) {
-        Team team = model.findTeam(teamNumber);
+    // Search teams by number, or by part of a team or university name
+    public void searchTeams(String query) {
+        long start = System.nanoTime();
+        StringBuilder sb = new StringBuilder();
         
-        if (team != null) {
-            String result = "TEAM FOUND!\n\n" + team.getFullDetails();
-            view.displaySearchResult(result);
-        } else {
-            view.displaySearchResult("Team with number " + teamNumber + " not found.");
+        try {
+            Team team = model.findTeam(Integer.parseInt(query));
+            if (team != null) {
+                sb.append("TEAM FOUND!\n\n").append(team.getFullDetails()).append("\n\n");
+            }
+        } catch (NumberFormatException e) {
+            // not a team number - search the names only
+        }
+        
+        List<Team> matches = model.searchTeams(query, SEARCH_LIMIT);
+        if (!matches.isEmpty()) {
+            sb.append(matches.size() == SEARCH_LIMIT ? "BEST " + SEARCH_LIMIT + " NAME MATCHES:\n" : "NAME MATCHES:\n");
+            sb.append("-".repeat(100)).append("\n");
+            for (Team team : matches) {
+                sb.append(String.format("%-8d %-32s %-28s %-24s %6.2f\n", team.getTeamNumber(), team.getTeamName(),
+                        team.getUniversityName(), team.getCategory(), team.getOverallScore()));
+            }
         }
+        
+        if (sb.length() == 0) {
+            sb.append("No team matches \"").append(query).append("\".");
+        }
+        view.displaySearchResult(sb.toString());
+        SEARCH_TIMER.recordSince(start);
     }
     
     // Load team for editing
@@ -98,9 +263,7 @@ public class HackathonController {
     
     // Save team changes
     public void saveTeamChanges(int teamNumber, String teamName, String university, String category, int[] scores) {
-        // Remove old team
-        model.removeTeam(teamNumber);
-        
+        long start = System.nanoTime();
         // Create new team with updated data
         Team newTeam;
         switch (category.toLowerCase()) {
@@ -120,7 +283,9 @@ public class HackathonController {
                 newTeam = new MobileAppTeam(teamNumber, teamName, university, scores);
         }
         
-        model.addTeam(newTeam);
+        // Replace the old team (journaled as a single update)
+        model.updateTeam(newTeam);
+        SAVE_CHANGES_TIMER.recordSince(start);
     }
     
     // Delete team
@@ -130,8 +295,16 @@ public class HackathonController {
     
     // Refresh statistics
     public void refreshStatistics() {
+        HackathonEvents.ViewRefresh event = new HackathonEvents.ViewRefresh();
+        event.begin();
         String stats = generateStatisticsText();
         view.updateStatistics(stats);
+        if (event.shouldCommit()) {
+            event.view = "statistics";
+            event.teams = model.getSnapshot().size();
+            event.rows = event.teams;
+            event.commit();
+        }
     }
     
     // Generate statistics text
@@ -142,13 +315,14 @@ public class HackathonController {
         sb.append("HACKATHON STATISTICS SUMMARY\n");
         sb.append("=".repeat(60)).append("\n\n");
         
-        sb.append(model.getStatisticsSummary()).append("\n\n");
+        TeamListSnapshot snapshot = model.getSnapshot();
+        TeamStatistics stats = snapshot.getStatistics();
+        sb.append(model.getStatisticsSummary(stats)).append("\n\n");
         
         // Category breakdown
         sb.append("TEAMS BY CATEGORY:\n");
         sb.append("-".repeat(60)).append("\n");
-        java.util.Map<String, Integer> categoryCount = model.getTeamList().getCategoryCount();
-        for (java.util.Map.Entry<String, Integer> entry : categoryCount.entrySet()) {
+        for (java.util.Map.Entry<String, Integer> entry : stats.getCategoryCount().entrySet()) {
             sb.append(String.format("%-30s: %d teams\n", entry.getKey(), entry.getValue()));
         }
         
@@ -157,10 +331,26 @@ public class HackathonController {
         // Score frequency
         sb.append("INDIVIDUAL SCORE FREQUENCY:\n");
         sb.append("-".repeat(60)).append("\n");
-        java.util.Map<Integer, Integer> frequency = model.getTeamList().getScoreFrequency();
         for (int score = 0; score <= 5; score++) {
-            int count = frequency.getOrDefault(score, 0);
-            sb.append(String.format("Score %d: %d times\n", score, count));
+            sb.append(String.format("Score %d: %d times\n", score, stats.getScoreCount(score)));
+        }
+        
+        sb.append("\n");
+        
+        // Average of each score position per category
+        sb.append("AVERAGE SCORE BY POSITION:\n");
+        sb.append("-".repeat(60)).append("\n");
+        ScoreHistogram histogram = snapshot.getScoreHistogram();
+        for (int code = 0; code < histogram.getCategoryCodeCount(); code++) {
+            int positions = histogram.getPositionCount(code);
+            if (histogram.getTotal(code) == 0) {
+                continue;
+            }
+            sb.append(String.format("%-24s", histogram.getCategoryName(code)));
+            for (int position = 0; position < positions; position++) {
+                sb.append(String.format("  S%d %.2f", position + 1, histogram.getPositionAverage(code, position)));
+            }
+            sb.append("\n");
         }
         
         return sb.toString();
@@ -168,7 +358,9 @@ public class HackathonController {
     
     // Generate full report
     public void generateReport() {
+        long start = System.nanoTime();
         boolean success = model.saveReportToFile(REPORT_FILE);
+        REPORT_TIMER.recordSince(start);
         
         if (success) {
             JOptionPane.showMessageDialog(view, 
@@ -185,20 +377,42 @@ public class HackathonController {
     
     // Handle application close
     public void handleClose() {
+        // Nothing loaded (yet) - there is nothing to save
+        if (!model.isLoaded()) {
+            cancelLoading();
+            System.exit(0);
+            return;
+        }
+        
+        // Edits are autosaved and journaled as they are made, so there is no
+        // way to drop them here - the choice is only whether to write the report
         int option = JOptionPane.showConfirmDialog(view, 
-            "Do you want to save teams to CSV before closing?", 
-            "Save Changes", 
+            "Changes to the teams are saved automatically and will be kept.\n"
+                + "Do you also want to save the report before closing?", 
+            "Close", 
             JOptionPane.YES_NO_CANCEL_OPTION);
         
-        if (option == JOptionPane.YES_OPTION) {
-            model.saveTeamsToFile(DEFAULT_CSV_FILE);
-            model.saveReportToFile(REPORT_FILE);
-            JOptionPane.showMessageDialog(view, 
-                "Teams and report saved successfully!", 
-                "Saved", 
-                JOptionPane.INFORMATION_MESSAGE);
-            System.exit(0);
-        } else if (option == JOptionPane.NO_OPTION) {
+        if (option == JOptionPane.YES_OPTION || option == JOptionPane.NO_OPTION) {
+            if (autosaveTimer != null) {
+                autosaveTimer.stop();
+            }
+            long start = System.nanoTime();
+            boolean saved = model.saveTeamsToFile(DEFAULT_CSV_FILE);
+            if (option == JOptionPane.YES_OPTION) {
+                saved &= model.saveReportToFile(REPORT_FILE);
+            }
+            CLOSE_SAVE_TIMER.recordSince(start);
+            if (!saved) {
+                JOptionPane.showMessageDialog(view, 
+                    "Saving failed - the window stays open so nothing is lost.", 
+                    "Error", 
+                    JOptionPane.ERROR_MESSAGE);
+                if (autosaveTimer != null) {
+                    autosaveTimer.start();
+                }
+                return;
+            }
+            model.close();
             System.exit(0);
         }
         // If CANCEL, do nothing (window stays open)
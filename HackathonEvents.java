@@ -0,0 +1,114 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Java Flight Recorder events for file I/O, team changes and view refreshes,
+// so a slow load or refresh shows up next to GC and lock activity in the same
+// recording. They are off unless a recording enables them, e.g. with the
+// bundled profile:
+//
+//   java -XX:StartFlightRecording:settings=default,settings=hackathon.jfc,filename=hackathon.jfr HackathonManagementSystem
+//
+// Usage follows the JFR pattern: begin() before the work, then fill in the
+// fields and commit() only if shouldCommit() - a disabled event costs a
+// branch, and the JIT removes the event object.
+public final class HackathonEvents {
+    private HackathonEvents() {
+    }
+
+    @Name("hackathon.FileRead")
+    @Label("File Read")
+    @Category({"Hackathon", "File I/O"})
+    @Description("Teams read from a CSV or snapshot file")
+    public static class FileRead extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Format")
+        @Description("csv or snapshot")
+        public String format;
+
+        @Label("Teams")
+        public int teams;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Rejected Lines")
+        public int rejectedLines;
+    }
+
+    @Name("hackathon.FileWrite")
+    @Label("File Write")
+    @Category({"Hackathon", "File I/O"})
+    @Description("Teams or a report written to a file")
+    public static class FileWrite extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Format")
+        @Description("csv, snapshot or report")
+        public String format;
+
+        @Label("Teams")
+        public int teams;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    @Name("hackathon.TeamChange")
+    @Label("Team Change")
+    @Category({"Hackathon", "Model"})
+    @Description("A team added, updated or removed through the model")
+    public static class TeamChange extends Event {
+        @Label("Operation")
+        @Description("add, update, updateScores or remove")
+        public String operation;
+
+        @Label("Team Number")
+        public int teamNumber;
+
+        @Label("Category")
+        public String category;
+
+        @Label("Teams")
+        @Description("Number of teams after the change")
+        public int teams;
+
+        @Label("Applied")
+        public boolean applied;
+    }
+
+    @Name("hackathon.ViewRefresh")
+    @Label("View Refresh")
+    @Category({"Hackathon", "View"})
+    @Description("A table or statistics view rebuilt from the current teams")
+    public static class ViewRefresh extends Event {
+        @Label("View")
+        @Description("teams or statistics")
+        public String view;
+
+        @Label("Category Filter")
+        public String category;
+
+        @Label("Sort Option")
+        public String sortOption;
+
+        @Label("Rows")
+        @Description("Teams shown")
+        public int rows;
+
+        @Label("Teams")
+        @Description("Teams in the model")
+        public int teams;
+    }
+}
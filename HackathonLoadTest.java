@@ -0,0 +1,139 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Load generator for HackathonServer: several client threads send a mix of team
+// lookups, score submissions and leaderboard reads for a fixed time, then the
+// throughput and latency percentiles are printed.
+//
+//   java HackathonLoadTest [url] [threads] [seconds] [write percent] [user:password]
+//
+// Score submissions need an ADMIN user when the server has a users file.
+public class HackathonLoadTest {
+    private static final Pattern TEAM_NUMBER = Pattern.compile("\"teamNumber\":(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int writePercent = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        String authorization = args.length > 4
+                ? "Basic " + Base64.getEncoder().encodeToString(args[4].getBytes(StandardCharsets.UTF_8)) : null;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        int[] teamNumbers = fetchTeamNumbers(client, baseUrl, authorization);
+        if (teamNumbers.length == 0) {
+            System.out.println("No teams found at " + baseUrl);
+            return;
+        }
+
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] samples = new long[1 << 20];
+            latencies.add(samples);
+            Thread worker = new Thread(() -> runClient(client, baseUrl, authorization, teamNumbers, writePercent, end, samples, errors));
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int count = 0;
+        for (long[] samples : latencies) {
+            count += (int) samples[0];
+        }
+        long[] all = new long[count];
+        int n = 0;
+        for (long[] samples : latencies) {
+            System.arraycopy(samples, 1, all, n, (int) samples[0]);
+            n += (int) samples[0];
+        }
+        Arrays.sort(all);
+
+        System.out.println("Requests:   " + count + " (" + errors.get() + " errors)");
+        System.out.printf("Throughput: %.0f requests/s%n", count / (double) seconds);
+        System.out.printf("Latency:    p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1.0));
+    }
+
+    // Team numbers from the first page of the leaderboard
+    private static int[] fetchTeamNumbers(HttpClient client, String baseUrl, String authorization) throws Exception {
+        HttpRequest request = request(baseUrl + "/teams?limit=1000", authorization).GET().build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TEAM_NUMBER.matcher(body);
+        List<Integer> numbers = new ArrayList<>();
+        while (matcher.find()) {
+            numbers.add(Integer.parseInt(matcher.group(1)));
+        }
+        return numbers.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // One client thread; samples[0] holds the number of latencies recorded after it
+    private static void runClient(HttpClient client, String baseUrl, String authorization, int[] teamNumbers,
+                                  int writePercent, long end, long[] samples, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int count = 0;
+        while (System.nanoTime() < end && count < samples.length - 1) {
+            int teamNumber = teamNumbers[random.nextInt(teamNumbers.length)];
+            HttpRequest request;
+            int roll = random.nextInt(100);
+            if (roll < writePercent) {
+                StringBuilder body = new StringBuilder("{\"scores\":[");
+                for (int i = 0; i < 5; i++) {
+                    body.append(i > 0 ? "," : "").append(random.nextInt(TeamStatistics.MAX_SCORE + 1));
+                }
+                body.append("]}");
+                request = request(baseUrl + "/teams/" + teamNumber + "/scores", authorization)
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+            } else if (roll < writePercent + (100 - writePercent) / 10) {
+                request = request(baseUrl + "/teams?limit=20", authorization).GET().build();
+            } else {
+                request = request(baseUrl + "/teams/" + teamNumber, authorization).GET().build();
+            }
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            samples[++count] = System.nanoTime() - start;
+        }
+        samples[0] = count;
+    }
+
+    // A request for a URL, with the Authorization header if there is one
+    private static HttpRequest.Builder request(String url, String authorization) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url));
+        return authorization == null ? builder : builder.header("Authorization", authorization);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -1,16 +1,18 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.List;
 
 // Main View - GUI Interface
 public class HackathonMainView extends JFrame {
+    private static final int SEARCH_DELAY_MS = 150;
+    
     private HackathonController controller;
     private JTabbedPane tabbedPane;
     
     // Components for View Teams Tab
     private JTable teamsTable;
-    private DefaultTableModel tableModel;
+    private TeamsTableModel tableModel;
     private JComboBox<String> categoryFilter;
     private JComboBox<String> sortBy;
     private JButton refreshButton;
@@ -19,6 +21,7 @@ public class HackathonMainView extends JFrame {
     private JTextField searchField;
     private JButton searchButton;
     private JTextArea searchResultArea;
+    private Timer searchDelay; // searches once typing pauses
     
     // Components for Edit Team Tab
     private JTextField teamNumberField;
@@ -35,6 +38,11 @@ public class HackathonMainView extends JFrame {
     private JTextArea statsArea;
     private JButton generateReportButton;
     
+    // Components for the loading status bar
+    private JPanel loadingPanel;
+    private JProgressBar loadProgressBar;
+    private JButton cancelLoadButton;
+    
     public HackathonMainView(HackathonController controller) {
         this.controller = controller;
         initializeGUI();
@@ -63,6 +71,27 @@ public class HackathonMainView extends JFrame {
         tabbedPane.addTab("Statistics", createStatsPanel());
         
         add(tabbedPane);
+        add(createLoadingPanel(), BorderLayout.SOUTH);
+    }
+    
+    // Create the status bar shown while teams are loading
+    private JPanel createLoadingPanel() {
+        loadingPanel = new JPanel(new BorderLayout(10, 0));
+        loadingPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        
+        loadingPanel.add(new JLabel("Loading teams..."), BorderLayout.WEST);
+        
+        loadProgressBar = new JProgressBar(0, 100);
+        loadProgressBar.setStringPainted(true);
+        loadingPanel.add(loadProgressBar, BorderLayout.CENTER);
+        
+        cancelLoadButton = new JButton("Cancel");
+        loadingPanel.add(cancelLoadButton, BorderLayout.EAST);
+        
+        cancelLoadButton.addActionListener(e -> controller.cancelLoading());
+        
+        loadingPanel.setVisible(false);
+        return loadingPanel;
     }
     
     // Create View Teams Panel
@@ -89,13 +118,7 @@ public class HackathonMainView extends JFrame {
         panel.add(topPanel, BorderLayout.NORTH);
         
         // Table
-        String[] columnNames = {"Team #", "Team Name", "University", "Category", "Overall Score"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new TeamsTableModel();
         
         teamsTable = new JTable(tableModel);
         teamsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -117,9 +140,9 @@ public class HackathonMainView extends JFrame {
         
         // Top panel with search
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        topPanel.add(new JLabel("Enter Team Number:"));
+        topPanel.add(new JLabel("Team Number or Name:"));
         
-        searchField = new JTextField(10);
+        searchField = new JTextField(24);
         topPanel.add(searchField);
         
         searchButton = new JButton("Search");
@@ -138,6 +161,26 @@ public class HackathonMainView extends JFrame {
         searchButton.addActionListener(e -> searchTeam());
         searchField.addActionListener(e -> searchTeam());
         
+        // Results follow the typing: search once the field has been still briefly
+        searchDelay = new Timer(SEARCH_DELAY_MS, e -> searchAsYouType());
+        searchDelay.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                searchDelay.restart();
+            }
+            
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                searchDelay.restart();
+            }
+            
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                searchDelay.restart();
+            }
+        });
+        
         return panel;
     }
     
@@ -242,27 +285,54 @@ public class HackathonMainView extends JFrame {
         controller.refreshTeamsTable();
     }
     
-    // Update table with data
-    public void updateTeamsTable(Object[][] data) {
-        tableModel.setRowCount(0);
-        for (Object[] row : data) {
-            tableModel.addRow(row);
+    // Show or hide the loading status bar. Only the teams table is usable while
+    // teams are loading, and the other tabs stay disabled until a load has
+    // succeeded - before that, edits would have no file to be saved to.
+    public void showLoading(boolean loading) {
+        loadProgressBar.setValue(0);
+        loadingPanel.setVisible(loading);
+        boolean usable = !loading && controller.isLoaded();
+        for (int i = 1; i < tabbedPane.getTabCount(); i++) {
+            tabbedPane.setEnabledAt(i, usable);
         }
+        refreshButton.setEnabled(usable);
+        categoryFilter.setEnabled(usable);
+        sortBy.setEnabled(usable);
+    }
+    
+    public void setLoadProgress(int percent) {
+        loadProgressBar.setValue(percent);
+    }
+    
+    // Add teams to the table while they are still loading
+    public void appendLoadingTeams(List<Team> teams) {
+        tableModel.appendLoadingTeams(teams);
+    }
+    
+    // Show the given store slots as the table rows (cells are read lazily)
+    public void showTeams(TeamStore store, int[] slots) {
+        tableModel.showTeams(store, slots);
     }
     
     // Search team
     private void searchTeam() {
+        searchDelay.stop();
         String input = searchField.getText().trim();
         if (input.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Please enter a team number", "Input Error", JOptionPane.WARNING_MESSAGE);
+            JOptionPane.showMessageDialog(this, "Please enter a team number or name", "Input Error", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        try {
-            int teamNumber = Integer.parseInt(input);
-            controller.searchTeam(teamNumber);
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, "Please enter a valid team number", "Input Error", JOptionPane.ERROR_MESSAGE);
+        controller.searchTeams(input);
+    }
+    
+    // Search for what has been typed so far (no dialog for an empty field)
+    private void searchAsYouType() {
+        String input = searchField.getText().trim();
+        if (input.isEmpty()) {
+            searchResultArea.setText("");
+        } else {
+            controller.searchTeams(input);
         }
     }
     
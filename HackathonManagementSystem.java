@@ -2,6 +2,7 @@ import javax.swing.*;
 
 // Main Application Class
 public class HackathonManagementSystem {
+    private static final String METRICS_LOG = "HackathonMetrics.log";
     
     public static void main(String[] args) {
         // Set look and feel to system default
@@ -11,6 +12,10 @@ public class HackathonManagementSystem {
             e.printStackTrace();
         }
         
+        // Publish metrics over JMX and log them periodically
+        Metrics.enableJmx();
+        Metrics.startDumping(METRICS_LOG);
+        
         // Create MVC components
         SwingUtilities.invokeLater(() -> {
             // Create model
@@ -1,11 +1,14 @@
+import java.io.IOException;
 import java.util.Scanner;
 
 // Console-based Manager class for testing without GUI
 public class HackathonManager {
     private TeamList teamList;
+    private TeamJournal journal;
     private Scanner scanner;
     private static final String CSV_FILE = "HackathonTeams.csv";
     private static final String REPORT_FILE = "HackathonReport.txt";
+    private static final int PAGE_SIZE = 20;
     
     public HackathonManager() {
         this.teamList = new TeamList();
@@ -75,6 +78,7 @@ public class HackathonManager {
             }
         }
         
+        closeJournal();
         System.out.println("\nThank you for using Hackathon Management System!");
         scanner.close();
     }
@@ -98,21 +102,42 @@ public class HackathonManager {
     
     private void loadTeamsFromFile() {
         System.out.println("\nLoading teams from " + CSV_FILE + "...");
-        teamList = FileManager.readTeamsFromCSV(CSV_FILE);
+        teamList = FileManager.readTeams(CSV_FILE);
+        // Edits made since the last save are replayed from the journal
+        journal = FileManager.openJournal(CSV_FILE, teamList);
         System.out.println("Loaded " + teamList.size() + " teams successfully!");
     }
     
+    // Show the teams a page at a time in team number order - only the page on
+    // screen is built, however many teams there are
     private void displayAllTeams() {
         System.out.println("\n" + "=".repeat(60));
         System.out.println("ALL TEAMS");
         System.out.println("=".repeat(60));
         
-        if (teamList.size() == 0) {
+        TeamPage page = teamList.query(null, TeamListSnapshot.SortKey.TEAM_NUMBER, null, PAGE_SIZE);
+        if (page.getTotal() == 0) {
             System.out.println("No teams found.");
             return;
         }
         
-        System.out.println(teamList.getFullDetailsTable());
+        while (true) {
+            for (Team team : page.getTeams()) {
+                System.out.println(team.getFullDetails());
+                System.out.println("-".repeat(60));
+            }
+            System.out.println("Teams " + (page.getOffset() + 1) + "-" + (page.getOffset() + page.getTeams().size())
+                    + " of " + page.getTotal());
+            if (!page.hasNext()) {
+                return;
+            }
+            System.out.print("Press Enter for the next page, or 0 to return to the menu: ");
+            if (scanner.nextLine().trim().equals("0")) {
+                return;
+            }
+            // The cursor keeps the place even if the list changed in between
+            page = teamList.query(null, TeamListSnapshot.SortKey.TEAM_NUMBER, page.getNextCursor(), PAGE_SIZE);
+        }
     }
     
     private void searchTeam() {
@@ -147,28 +172,26 @@ public class HackathonManager {
         System.out.println("STATISTICS SUMMARY");
         System.out.println("=".repeat(60));
         
-        System.out.println("Total Teams: " + teamList.size());
-        System.out.printf("Average Overall Score: %.2f\n", teamList.getAverageOverallScore());
-        System.out.printf("Minimum Overall Score: %.2f\n", teamList.getMinimumOverallScore());
-        System.out.printf("Maximum Overall Score: %.2f\n", teamList.getMaximumOverallScore());
+        TeamStatistics stats = teamList.getStatistics();
+        System.out.println("Total Teams: " + stats.getTeamCount());
+        System.out.printf("Average Overall Score: %.2f\n", stats.getAverageOverallScore());
+        System.out.printf("Minimum Overall Score: %.2f\n", stats.getMinimumOverallScore());
+        System.out.printf("Maximum Overall Score: %.2f\n", stats.getMaximumOverallScore());
         
         System.out.println("\nTeams by Category:");
-        java.util.Map<String, Integer> categoryCount = teamList.getCategoryCount();
-        for (java.util.Map.Entry<String, Integer> entry : categoryCount.entrySet()) {
+        for (java.util.Map.Entry<String, Integer> entry : stats.getCategoryCount().entrySet()) {
             System.out.println(entry.getKey() + ": " + entry.getValue() + " teams");
         }
         
         System.out.println("\nIndividual Score Frequency:");
-        java.util.Map<Integer, Integer> frequency = teamList.getScoreFrequency();
         for (int score = 0; score <= 5; score++) {
-            int count = frequency.getOrDefault(score, 0);
-            System.out.println("Score " + score + ": " + count + " times");
+            System.out.println("Score " + score + ": " + stats.getScoreCount(score) + " times");
         }
     }
     
     private void generateReport() {
         System.out.println("\nGenerating full report...");
-        boolean success = FileManager.writeReportToFile(REPORT_FILE, teamList.generateReport());
+        boolean success = FileManager.writeReportToFile(REPORT_FILE, teamList);
         
         if (success) {
             System.out.println("Report successfully generated and saved to " + REPORT_FILE);
@@ -185,7 +208,7 @@ public class HackathonManager {
         int teamNumber = getIntInput("Enter team number: ");
         
         // Check if team already exists
-        if (teamList.findTeamByNumber(teamNumber) != null) {
+        if (teamList.containsTeam(teamNumber)) {
             System.out.println("Team with this number already exists!");
             return;
         }
@@ -221,6 +244,9 @@ public class HackathonManager {
         
         Team newTeam = createTeam(teamNumber, teamName, university, category, scores);
         teamList.addTeam(newTeam);
+        if (journal != null) {
+            journal.logAdd(newTeam);
+        }
         
         System.out.println("\nTeam added successfully!");
         System.out.println(newTeam.getShortDetails());
@@ -260,10 +286,12 @@ public class HackathonManager {
             }
         }
         
-        // Remove old team and add updated team
-        teamList.removeTeam(teamNumber);
+        // Swap in the updated team
         Team updatedTeam = createTeam(teamNumber, teamName, university, team.getCategory(), scores);
-        teamList.addTeam(updatedTeam);
+        teamList.replaceTeam(updatedTeam);
+        if (journal != null) {
+            journal.logUpdate(updatedTeam);
+        }
         
         System.out.println("\nTeam updated successfully!");
         System.out.println(updatedTeam.getShortDetails());
@@ -286,6 +314,9 @@ public class HackathonManager {
         
         if (confirm.equalsIgnoreCase("y")) {
             if (teamList.removeTeam(teamNumber)) {
+                if (journal != null) {
+                    journal.logDelete(teamNumber);
+                }
                 System.out.println("Team deleted successfully!");
             } else {
                 System.out.println("Failed to delete team.");
@@ -298,6 +329,17 @@ public class HackathonManager {
     private void saveTeamsToFile() {
         System.out.println("\nSaving teams to " + CSV_FILE + "...");
         boolean success = FileManager.writeTeamsToCSV(CSV_FILE, teamList);
+        if (success) {
+            FileManager.writeSnapshot(CSV_FILE, teamList);
+            // The journaled edits are now in the CSV file
+            if (journal != null) {
+                try {
+                    journal.reset();
+                } catch (IOException e) {
+                    System.err.println("Error resetting journal: " + e.getMessage());
+                }
+            }
+        }
         
         if (success) {
             System.out.println("Teams saved successfully!");
@@ -306,6 +348,16 @@ public class HackathonManager {
         }
     }
     
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+        }
+    }
+    
     // Helper method to create team based on category
     private Team createTeam(int teamNumber, String teamName, String university, String category, int[] scores) {
         switch (category.toLowerCase()) {
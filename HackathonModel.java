@@ -1,9 +1,38 @@
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 // Model class - manages data and business logic
 public class HackathonModel {
-    private TeamList teamList;
+    // Fold the journal back into the CSV file once it grows past this size
+    private static final long COMPACT_THRESHOLD = 4L << 20;
+    
+    // Volatile: a load on a background thread swaps these in when it is done
+    private volatile TeamList teamList;
+    private volatile String dataFile;
+    private volatile TeamJournal journal;
+    
+    // Dirty tracking: edits made so far vs. edits contained in the saved data file.
+    // changeCount is only incremented while holding the model's lock.
+    private volatile long changeCount;
+    private volatile long savedChangeCount;
+    
+    // Background saves run one at a time on their own thread
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "team-autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean saveRunning = new AtomicBoolean();
+    private final Object saveLock = new Object();
+    
+    // Judges' score submissions - updated without taking the model's lock
+    private final ScoreLedger scoreLedger = new ScoreLedger();
     private List<Judge> judges;
     private List<Category> categories;
     private List<User> users;
@@ -11,7 +40,7 @@ public class HackathonModel {
     
     public HackathonModel() {
         this.teamList = new TeamList();
-        this.judges = new ArrayList<>();
+        this.judges = new CopyOnWriteArrayList<>(); // read by concurrent score submissions
         this.categories = new ArrayList<>();
         this.users = new ArrayList<>();
         this.currentUser = null;
@@ -85,26 +114,151 @@ public class HackathonModel {
         this.teamList = teamList;
     }
     
-    public void addTeam(Team team) {
+    // Changes are synchronized so each one reaches the journal in the order it
+    // was applied, even when several threads (e.g. server requests) edit at once
+    public synchronized void addTeam(Team team) {
+        HackathonEvents.TeamChange event = new HackathonEvents.TeamChange();
+        event.begin();
         teamList.addTeam(team);
+        if (journal != null) {
+            journal.logAdd(team);
+        }
+        changed();
+        commitChange(event, "add", team.getTeamNumber(), team.getCategory(), true);
+    }
+    
+    // Replace a team with an edited copy (same team number)
+    public synchronized void updateTeam(Team team) {
+        HackathonEvents.TeamChange event = new HackathonEvents.TeamChange();
+        event.begin();
+        teamList.replaceTeam(team);
+        if (journal != null) {
+            journal.logUpdate(team);
+        }
+        changed();
+        commitChange(event, "update", team.getTeamNumber(), team.getCategory(), true);
+    }
+    
+    // Replace a team's scores; returns false if there is no such team
+    public synchronized boolean updateScores(int teamNumber, int[] scores) {
+        HackathonEvents.TeamChange event = new HackathonEvents.TeamChange();
+        event.begin();
+        if (!teamList.updateScores(teamNumber, scores)) {
+            commitChange(event, "updateScores", teamNumber, null, false);
+            return false;
+        }
+        if (journal != null) {
+            journal.logUpdate(teamList.findTeamByNumber(teamNumber));
+        }
+        changed();
+        commitChange(event, "updateScores", teamNumber, null, true);
+        return true;
+    }
+    
+    public synchronized boolean removeTeam(int teamNumber) {
+        HackathonEvents.TeamChange event = new HackathonEvents.TeamChange();
+        event.begin();
+        boolean removed = teamList.removeTeam(teamNumber);
+        if (removed) {
+            if (journal != null) {
+                journal.logDelete(teamNumber);
+            }
+            scoreLedger.removeTeam(teamNumber);
+            changed();
+        }
+        commitChange(event, "remove", teamNumber, null, removed);
+        return removed;
+    }
+    
+    // Flight recorder event for a change, filled in only when a recording wants it
+    private void commitChange(HackathonEvents.TeamChange event, String operation, int teamNumber,
+                              String category, boolean applied) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.teamNumber = teamNumber;
+            event.category = category;
+            event.teams = teamList.size();
+            event.applied = applied;
+            event.commit();
+        }
     }
     
-    public boolean removeTeam(int teamNumber) {
-        return teamList.removeTeam(teamNumber);
+    private void changed() {
+        changeCount++;
+        // Compaction: fold a long journal back into the data file. A journal
+        // whose write failed takes no more changes, so they go to the data
+        // file too (saving resets the journal, which then works again).
+        if (journal != null && (journal.length() >= COMPACT_THRESHOLD || journal.getFailure() != null)) {
+            autosave();
+        }
+    }
+    
+    // True if the teams changed since they were last loaded or saved
+    public boolean hasUnsavedChanges() {
+        return changeCount != savedChangeCount;
     }
     
     public Team findTeam(int teamNumber) {
         return teamList.findTeamByNumber(teamNumber);
     }
     
-    public ArrayList<Team> getAllTeams() {
+    // Teams whose team or university name matches a query, best matches first
+    public List<Team> searchTeams(String query, int limit) {
+        return teamList.searchTeams(query, limit);
+    }
+    
+    // Record a judge's score for a team; returns false if there is no such team.
+    // Safe to call from many threads at once - no lock is held.
+    public boolean submitScore(int judgeId, int teamNumber, int creativity, int technical,
+                               int teamwork, int presentation) {
+        Judge judge = findJudge(judgeId);
+        if (judge == null) {
+            throw new IllegalArgumentException("Judge " + judgeId + " not found");
+        }
+        Team team = findTeam(teamNumber);
+        if (team == null) {
+            return false;
+        }
+        if (!judge.canJudgeTeam(team)) {
+            throw new IllegalArgumentException(judge.getFullName() + " is not assigned to " + team.getCategory());
+        }
+        Score score = new Score(scoreLedger.nextScoreId(), judge, team);
+        score.setScores(creativity, technical, teamwork, presentation);
+        scoreLedger.submit(score);
+        // removeTeam drops the team, then its scores: if it got in after the
+        // check above, the submission may have started a new tally for it
+        if (findTeam(teamNumber) == null) {
+            scoreLedger.removeTeam(teamNumber);
+            return false;
+        }
+        return true;
+    }
+    
+    public ScoreLedger getScoreLedger() {
+        return scoreLedger;
+    }
+    
+    // Immutable point-in-time view of the teams
+    public TeamListSnapshot getSnapshot() {
+        return teamList.snapshot();
+    }
+    
+    public List<Team> getAllTeams() {
         return teamList.getAllTeams();
     }
     
-    public ArrayList<Team> getTeamsByCategory(String category) {
+    public List<Team> getTeamsByCategory(String category) {
         return teamList.getTeamsByCategory(category);
     }
     
+    public List<Team> getTeamsByOverallScore() {
+        return teamList.getTeamsByOverallScore();
+    }
+    
+    public List<Team> getTeamsByOverallScore(String category) {
+        return teamList.getTeamsByOverallScore(category);
+    }
+    
     // Judge management
     public List<Judge> getJudges() {
         return judges;
@@ -142,28 +296,178 @@ public class HackathonModel {
     }
     
     // File operations
+    // Load teams and replay any edits journaled since the last save
     public void loadTeamsFromFile(String filename) {
-        this.teamList = FileManager.readTeamsFromCSV(filename);
+        loadTeamsFromFile(filename, null);
     }
     
+    // Same, reporting progress to a listener. May run on a background thread:
+    // the model only switches to the new teams once they are fully loaded, so a
+    // cancelled load (CancellationException from the listener) changes nothing.
+    public void loadTeamsFromFile(String filename, FileManager.LoadListener listener) {
+        TeamList loaded = FileManager.readTeams(filename, listener);
+        waitForSave();
+        closeJournal();
+        TeamJournal loadedJournal = FileManager.openJournal(filename, loaded);
+        synchronized (this) {
+            this.teamList = loaded;
+            this.dataFile = filename;
+            this.journal = loadedJournal;
+            this.savedChangeCount = changeCount;
+        }
+        scoreLedger.clear();
+    }
+    
+    // True once teams have been loaded from a data file
+    public boolean isLoaded() {
+        return dataFile != null;
+    }
+    
+    // Save teams now, on the calling thread
     public boolean saveTeamsToFile(String filename) {
-        return FileManager.writeTeamsToCSV(filename, teamList);
+        if (filename.equals(dataFile)) {
+            return captureSave().run();
+        }
+        boolean saved = FileManager.writeTeamsToCSV(filename, teamList);
+        if (saved) {
+            FileManager.writeSnapshot(filename, teamList);
+        }
+        return saved;
+    }
+    
+    // Start saving the data file in the background if anything changed since the
+    // last save. The teams are saved from an immutable snapshot of the list, so
+    // editing can carry on while the files are written on the save thread.
+    // Returns false if there was nothing to do (or a save is still running).
+    public synchronized boolean autosave() {
+        if (dataFile == null || !hasUnsavedChanges() || !saveRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        SaveJob job = captureSave();
+        saveExecutor.execute(() -> {
+            try {
+                job.run();
+            } finally {
+                saveRunning.set(false);
+            }
+        });
+        return true;
+    }
+    
+    // Take the teams, change count and journal length together (no change can
+    // slip in between, or the journal could be reset past an unsaved change)
+    private synchronized SaveJob captureSave() {
+        long journalLength = journal != null ? journal.length() : 0;
+        return new SaveJob(dataFile, teamList.getStore(), changeCount, journal, journalLength);
+    }
+    
+    // Block until a running background save has finished
+    public void waitForSave() {
+        try {
+            saveExecutor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error waiting for save: " + e.getMessage());
+        }
+    }
+    
+    // Finish any background save and close the journal
+    public void close() {
+        waitForSave();
+        closeJournal();
+    }
+    
+    // Writes a set of teams to the data file (CSV + snapshot), then marks those
+    // changes saved and drops them from the journal
+    private class SaveJob {
+        private final String filename;
+        private final TeamStore store;
+        private final long changes;
+        private final TeamJournal saveJournal;
+        private final long journalLength;
+        
+        SaveJob(String filename, TeamStore store, long changes, TeamJournal saveJournal, long journalLength) {
+            this.filename = filename;
+            this.store = store;
+            this.changes = changes;
+            this.saveJournal = saveJournal;
+            this.journalLength = journalLength;
+        }
+        
+        boolean run() {
+            synchronized (saveLock) {
+                if (changes < savedChangeCount) {
+                    return true; // a newer save already went out
+                }
+                boolean saved = FileManager.writeTeamsToCSV(filename, store);
+                if (saved) {
+                    FileManager.writeSnapshot(filename, store);
+                    savedChangeCount = changes;
+                    // Edits logged after the copy was taken stay in the journal
+                    if (saveJournal != null) {
+                        try {
+                            saveJournal.resetIfUnchanged(journalLength);
+                        } catch (IOException e) {
+                            System.err.println("Error resetting journal: " + e.getMessage());
+                        }
+                    }
+                }
+                return saved;
+            }
+        }
+    }
+    
+    // Wait until every edit so far is in the journal on disk. Returns false if
+    // the journal failed - a save of the data file is then started instead,
+    // so the edits are only safe once it is done.
+    public boolean syncJournal() {
+        TeamJournal current = journal;
+        if (current == null) {
+            return true;
+        }
+        try {
+            current.sync();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error syncing journal: " + e.getMessage());
+            autosave();
+            return false;
+        }
+    }
+    
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+            journal = null;
+        }
     }
     
     public boolean saveReportToFile(String filename) {
-        String report = teamList.generateReport();
-        return FileManager.writeReportToFile(filename, report);
+        return FileManager.writeReportToFile(filename, teamList);
     }
     
     // Statistics
+    public TeamStatistics getStatistics() {
+        return teamList.getStatistics();
+    }
+    
     public String getStatisticsSummary() {
+        return getStatisticsSummary(getStatistics());
+    }
+    
+    public String getStatisticsSummary(TeamStatistics stats) {
         StringBuilder sb = new StringBuilder();
-        sb.append("Total Teams: ").append(teamList.size()).append("\n");
-        sb.append(String.format("Average Score: %.2f\n", teamList.getAverageOverallScore()));
-        sb.append(String.format("Highest Score: %.2f\n", teamList.getMaximumOverallScore()));
-        sb.append(String.format("Lowest Score: %.2f\n", teamList.getMinimumOverallScore()));
+        sb.append("Total Teams: ").append(stats.getTeamCount()).append("\n");
+        sb.append(String.format("Average Score: %.2f\n", stats.getAverageOverallScore()));
+        sb.append(String.format("Highest Score: %.2f\n", stats.getMaximumOverallScore()));
+        sb.append(String.format("Lowest Score: %.2f\n", stats.getMinimumOverallScore()));
         
-        Team highest = teamList.getHighestScoringTeam();
+        Team highest = stats.getHighestScoringTeam();
         if (highest != null) {
             sb.append("\nTop Team: ").append(highest.getTeamName());
             sb.append(String.format(" (%.2f)", highest.getOverallScore()));
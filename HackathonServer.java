@@ -0,0 +1,728 @@
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Headless server mode - the same model as the GUI, reachable over HTTP/JSON
+// so many judges can submit scores at once.
+//
+//   GET  /teams/{number}                  one team
+//   POST /teams/{number}/scores           body {"scores":[4,5,3,4,5]}, returns the team
+//   GET  /teams?offset=0&limit=100        teams ranked by overall score; also
+//                                         sort=number|name|score, and cursor=
+//                                         (a page's nextCursor) instead of offset
+//   GET  /categories                      categories with their team counts
+//   GET  /categories/{name}/teams         one category's teams (same parameters)
+//   GET  /statistics                      summary statistics
+//   POST /teams/{number}/judges/{judgeId} body {"scores":[4,5,3,4]} - a judge's
+//                                         creativity, technical, teamwork and
+//                                         presentation score; returns the totals
+//   GET  /judging?offset=0&limit=100      teams ranked by the judges' average
+//
+// The server listens on the loopback address only, unless it is given an
+// address to bind to. Serving beyond this machine needs a users file (one
+// User per line: username,password,role[,judgeId]); with one, every request
+// must carry HTTP Basic credentials of a listed user. Any user may read,
+// POST /teams/{number}/scores needs an ADMIN and a judge's scores can be
+// submitted by that JUDGE (the user's judge id) or an ADMIN.
+//
+// Team lookups and score submissions always see the latest data, and a score
+// update is only acknowledged once it is in the journal on disk (concurrent
+// submissions share one fsync). Listings and
+// statistics come from a snapshot of the teams that is refreshed at most every
+// SNAPSHOT_MAX_AGE_MS, so a stream of submissions does not force a rebuild of
+// the snapshot per request.
+public class HackathonServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final String DEFAULT_CSV_FILE = "HackathonTeams.csv";
+    private static final String DEFAULT_USERS_FILE = "HackathonUsers.csv";
+    private static final long SNAPSHOT_MAX_AGE_MS = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_SIZE = 1 << 16;
+    private static final int AUTOSAVE_INTERVAL_SECONDS = 30;
+    private static final String METRICS_LOG = "HackathonMetrics.log";
+
+    private static final Metrics.Timer REQUEST_TIMER = Metrics.timer("server.request");
+    private static final Metrics.Counter CLIENT_ERRORS = Metrics.counter("server.request.clientErrors");
+    private static final Metrics.Counter SERVER_ERRORS = Metrics.counter("server.request.serverErrors");
+
+    private final HackathonModel model;
+    private final Map<String, Account> accounts; // username -> account; null if anyone may use the server
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ScheduledExecutorService autosaveExecutor;
+
+    private volatile TeamListSnapshot snapshot;
+    private volatile long snapshotTime;
+    private final AtomicBoolean refreshingSnapshot = new AtomicBoolean();
+
+    // A server on the loopback address that needs no credentials
+    public HackathonServer(HackathonModel model, int port) throws IOException {
+        this(model, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), null);
+    }
+
+    // A server on any address; accounts (username -> account) may only be
+    // null on a loopback address
+    public HackathonServer(HackathonModel model, InetSocketAddress address, Map<String, Account> accounts) throws IOException {
+        if (accounts == null && (address.getAddress() == null || !address.getAddress().isLoopbackAddress())) {
+            throw new IllegalArgumentException("Serving on " + address + " needs a users file");
+        }
+        this.model = model;
+        this.accounts = accounts;
+        // Headers and body go out as separate writes; without TCP_NODELAY a
+        // keep-alive client waits ~40 ms for the delayed ACK on every response
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(address, 1024);
+        this.requestExecutor = newRequestExecutor();
+        this.autosaveExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "server-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Filter> filters = List.of(new RequestTiming(), new Authentication());
+        server.createContext("/teams", this::handleTeams).getFilters().addAll(filters);
+        server.createContext("/categories", this::handleCategories).getFilters().addAll(filters);
+        server.createContext("/statistics", this::handleStatistics).getFilters().addAll(filters);
+        server.createContext("/judging", this::handleJudging).getFilters().addAll(filters);
+        server.setExecutor(requestExecutor);
+    }
+
+    // A user allowed to use the server, and the judge they score as (0 if none)
+    static class Account {
+        private final User user;
+        private final int judgeId;
+
+        Account(User user, int judgeId) {
+            this.user = user;
+            this.judgeId = judgeId;
+        }
+
+        boolean isAdmin() {
+            return "ADMIN".equalsIgnoreCase(user.getRole());
+        }
+
+        // May submit a judge's scores (judgeId) or, for judgeId 0, a team's own scores
+        boolean maySubmit(int judgeId) {
+            return isAdmin() || judgeId != 0 && judgeId == this.judgeId && "JUDGE".equalsIgnoreCase(user.getRole());
+        }
+    }
+
+    // Accounts from a users file: a header line, then username,password,role[,judgeId]
+    static Map<String, Account> readAccounts(String filename) throws IOException {
+        Map<String, Account> accounts = new HashMap<>();
+        List<String> lines = Files.readAllLines(Path.of(filename), StandardCharsets.UTF_8);
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length < 3 || fields.length > 4 || fields[0].isEmpty()) {
+                throw new IOException(filename + " line " + (i + 1) + ": expected username,password,role[,judgeId]");
+            }
+            int judgeId;
+            try {
+                judgeId = fields.length == 4 && !fields[3].isBlank() ? Integer.parseInt(fields[3].trim()) : 0;
+            } catch (NumberFormatException e) {
+                throw new IOException(filename + " line " + (i + 1) + ": invalid judge id " + fields[3]);
+            }
+            User user = new User(fields[0].trim(), fields[1], fields[2].trim());
+            accounts.put(user.getUsername(), new Account(user, judgeId));
+        }
+        return accounts;
+    }
+
+    // Rejects requests without the credentials of a listed user, and passes
+    // the user's account on to the handler
+    private class Authentication extends Filter {
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            if (accounts == null) {
+                chain.doFilter(exchange);
+                return;
+            }
+            Account account = authenticate(exchange.getRequestHeaders().getFirst("Authorization"));
+            if (account == null) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"hackathon\", charset=\"UTF-8\"");
+                try {
+                    sendError(exchange, 401, "Credentials required");
+                } finally {
+                    exchange.close();
+                }
+                return;
+            }
+            exchange.setAttribute(Account.class.getName(), account);
+            chain.doFilter(exchange);
+        }
+
+        // The account for a Basic authorization header, or null
+        private Account authenticate(String header) {
+            if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+                return null;
+            }
+            String credentials;
+            try {
+                credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            int colon = credentials.indexOf(':');
+            Account account = colon < 0 ? null : accounts.get(credentials.substring(0, colon));
+            return account != null && account.user.authenticate(credentials.substring(colon + 1)) ? account : null;
+        }
+
+        @Override
+        public String description() {
+            return "HTTP Basic authentication";
+        }
+    }
+
+    // Whether the request's user may submit a judge's scores (judgeId), or a
+    // team's own scores for judgeId 0
+    private boolean maySubmit(HttpExchange exchange, int judgeId) {
+        if (accounts == null) {
+            return true;
+        }
+        Account account = (Account) exchange.getAttribute(Account.class.getName());
+        return account != null && account.maySubmit(judgeId);
+    }
+
+    // The port the server listens on
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Records the latency and outcome of every request
+    private static class RequestTiming extends Filter {
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            long start = System.nanoTime();
+            try {
+                chain.doFilter(exchange);
+            } finally {
+                REQUEST_TIMER.recordSince(start);
+                int status = exchange.getResponseCode();
+                if (status >= 500) {
+                    SERVER_ERRORS.increment();
+                } else if (status >= 400) {
+                    CLIENT_ERRORS.increment();
+                }
+            }
+        }
+
+        @Override
+        public String description() {
+            return "Request timing";
+        }
+    }
+
+    // java HackathonServer [port] [CSV file] [bind address] [users file]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String csvFile = args.length > 1 ? args[1] : DEFAULT_CSV_FILE;
+        InetAddress bindAddress = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+        String usersFile = args.length > 3 ? args[3] : DEFAULT_USERS_FILE;
+        Map<String, Account> accounts = null;
+        if (args.length > 3 || Files.exists(Path.of(usersFile))) {
+            try {
+                accounts = readAccounts(usersFile);
+            } catch (IOException e) {
+                System.err.println("Error reading users file: " + e);
+                System.exit(1);
+            }
+        } else if (!bindAddress.isLoopbackAddress()) {
+            System.err.println("Serving on " + bindAddress.getHostAddress() + " needs a users file ("
+                    + DEFAULT_USERS_FILE + ": username,password,role[,judgeId])");
+            System.exit(1);
+        }
+
+        Metrics.enableJmx();
+        Metrics.startDumping(METRICS_LOG);
+        FileManager.createSampleCSVFile(csvFile);
+        HackathonModel model = new HackathonModel();
+        model.loadTeamsFromFile(csvFile);
+
+        HackathonServer server = new HackathonServer(model, new InetSocketAddress(bindAddress, port), accounts);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "server-shutdown"));
+        server.start();
+        System.out.println("Serving " + model.getTeamList().size() + " teams on http://"
+                + bindAddress.getHostAddress() + ":" + server.getPort() + "/"
+                + (accounts == null ? "" : " to the " + accounts.size() + " users in " + usersFile));
+        System.err.println("Note: judge scores (POST /teams/{n}/judges/{id}) are kept in memory only"
+                + " and are lost when the server stops");
+    }
+
+    // One virtual thread per request where the JDK has them (Java 21+), otherwise
+    // a fixed pool - handlers only touch memory, so a few threads per core suffice
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "server-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+        autosaveExecutor.scheduleWithFixedDelay(model::autosave,
+                AUTOSAVE_INTERVAL_SECONDS, AUTOSAVE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Stop accepting requests, then flush edits to disk
+    public void stop() {
+        server.stop(1);
+        requestExecutor.shutdown();
+        autosaveExecutor.shutdown();
+        model.close();
+    }
+
+    // Snapshot for listings and statistics - one request refreshes it when it is
+    // stale, the others keep using the previous one meanwhile
+    private TeamListSnapshot readSnapshot() {
+        TeamListSnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if ((current == null || now - snapshotTime > SNAPSHOT_MAX_AGE_MS)
+                && refreshingSnapshot.compareAndSet(false, true)) {
+            try {
+                current = model.getSnapshot();
+                snapshot = current;
+                snapshotTime = now;
+            } finally {
+                refreshingSnapshot.set(false);
+            }
+        }
+        return current != null ? current : model.getSnapshot();
+    }
+
+    // /teams, /teams/{number}, /teams/{number}/scores
+    private void handleTeams(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = pathParts(exchange);
+            String method = exchange.getRequestMethod();
+            if (path.length == 1) {
+                if (!"GET".equals(method)) {
+                    sendError(exchange, 405, "Use GET");
+                    return;
+                }
+                sendTeamPage(exchange, readSnapshot(), null);
+                return;
+            }
+
+            int teamNumber = parseTeamNumber(path[1]);
+            if (path.length == 2 && "GET".equals(method)) {
+                Team team = model.findTeam(teamNumber);
+                if (team == null) {
+                    sendError(exchange, 404, "Team " + teamNumber + " not found");
+                } else {
+                    send(exchange, 200, teamJson(new StringBuilder(), team).toString());
+                }
+            } else if (path.length == 3 && "scores".equals(path[2]) && "POST".equals(method)) {
+                if (!maySubmit(exchange, 0)) {
+                    sendError(exchange, 403, "Only an admin may set a team's scores");
+                    return;
+                }
+                int[] scores = parseScores(readBody(exchange));
+                if (!model.updateScores(teamNumber, scores)) {
+                    sendError(exchange, 404, "Team " + teamNumber + " not found");
+                } else if (!model.syncJournal()) {
+                    // Applied, but only safe on disk once the save the model started is done
+                    sendError(exchange, 503, "Scores applied but not yet saved - the journal failed");
+                } else {
+                    send(exchange, 200, teamJson(new StringBuilder(), model.findTeam(teamNumber)).toString());
+                }
+            } else if (path.length == 4 && "judges".equals(path[2]) && "POST".equals(method)) {
+                int judgeId = parseId(path[3], "judge id");
+                if (!maySubmit(exchange, judgeId)) {
+                    sendError(exchange, 403, "Only judge " + judgeId + " or an admin may submit these scores");
+                    return;
+                }
+                int[] scores = parseScores(readBody(exchange));
+                if (scores.length != 4) {
+                    throw new IllegalArgumentException("Expected 4 scores: creativity, technical, teamwork, presentation");
+                }
+                if (!model.submitScore(judgeId, teamNumber, scores[0], scores[1], scores[2], scores[3])) {
+                    sendError(exchange, 404, "Team " + teamNumber + " not found");
+                } else {
+                    ScoreLedger.Totals totals = model.getScoreLedger().getTotals(teamNumber);
+                    send(exchange, 200, totalsJson(new StringBuilder(), totals).toString());
+                }
+            } else {
+                sendError(exchange, path.length <= 3 ? 405 : 404, "Unsupported request");
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // /categories, /categories/{name}/teams
+    private void handleCategories(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use GET");
+                return;
+            }
+            String[] path = pathParts(exchange);
+            TeamListSnapshot current = readSnapshot();
+            if (path.length == 1) {
+                StringBuilder json = new StringBuilder("[");
+                for (Map.Entry<String, Integer> entry : current.getStatistics().getCategoryCount().entrySet()) {
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append("{\"name\":");
+                    quote(json, entry.getKey());
+                    json.append(",\"teams\":").append(entry.getValue()).append('}');
+                }
+                send(exchange, 200, json.append(']').toString());
+            } else if (path.length == 3 && "teams".equals(path[2])) {
+                String category = URLDecoder.decode(path[1], StandardCharsets.UTF_8);
+                sendTeamPage(exchange, current, category);
+            } else {
+                sendError(exchange, 404, "Unsupported request");
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // /statistics
+    private void handleStatistics(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use GET");
+                return;
+            }
+            TeamStatistics stats = readSnapshot().getStatistics();
+            StringBuilder json = new StringBuilder("{");
+            json.append("\"teamCount\":").append(stats.getTeamCount());
+            number(json.append(",\"averageOverallScore\":"), stats.getAverageOverallScore());
+            number(json.append(",\"minimumOverallScore\":"), stats.getMinimumOverallScore());
+            number(json.append(",\"maximumOverallScore\":"), stats.getMaximumOverallScore());
+            json.append(",\"highestScoringTeam\":");
+            if (stats.getHighestScoringTeam() == null) {
+                json.append("null");
+            } else {
+                teamJson(json, stats.getHighestScoringTeam());
+            }
+            json.append(",\"categoryCount\":{");
+            boolean first = true;
+            for (Map.Entry<String, Integer> entry : stats.getCategoryCount().entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                quote(json, entry.getKey());
+                json.append(':').append(entry.getValue());
+            }
+            json.append("},\"scoreFrequency\":{");
+            for (int score = 0; score <= TeamStatistics.MAX_SCORE; score++) {
+                if (score > 0) {
+                    json.append(',');
+                }
+                json.append('"').append(score).append("\":").append(stats.getScoreCount(score));
+            }
+            json.append("}}");
+            send(exchange, 200, json.toString());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // /judging - read straight from the score ledger, which never blocks submitters
+    private void handleJudging(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use GET");
+                return;
+            }
+            List<ScoreLedger.Totals> ranked = model.getScoreLedger().getRankedTotals();
+            int[] page = pageBounds(exchange, ranked.size());
+            StringBuilder json = new StringBuilder();
+            json.append("{\"total\":").append(ranked.size());
+            json.append(",\"offset\":").append(page[0]);
+            json.append(",\"teams\":[");
+            for (int i = page[0]; i < page[1]; i++) {
+                if (i > page[0]) {
+                    json.append(',');
+                }
+                totalsJson(json, ranked.get(i));
+            }
+            json.append("]}");
+            send(exchange, 200, json.toString());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // [from, to) of the page selected by the offset and limit query parameters
+    private static int[] pageBounds(HttpExchange exchange, int total) {
+        Map<String, String> query = queryParameters(exchange);
+        int offset = intParameter(query, "offset", 0);
+        int limit = intParameter(query, "limit", DEFAULT_PAGE_SIZE);
+        if (offset < 0 || limit < 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("offset must be >= 0 and limit 0-" + MAX_PAGE_SIZE);
+        }
+        int from = Math.min(offset, total);
+        return new int[]{from, Math.min(total, from + limit)};
+    }
+
+    // One page of teams (every team for a null category), selected by the sort,
+    // offset or cursor, and limit query parameters. Only that page is built.
+    private void sendTeamPage(HttpExchange exchange, TeamListSnapshot current, String category) throws IOException {
+        Map<String, String> query = queryParameters(exchange);
+        TeamListSnapshot.SortKey sortKey = sortParameter(query);
+        int limit = intParameter(query, "limit", DEFAULT_PAGE_SIZE);
+        if (limit < 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be 0-" + MAX_PAGE_SIZE);
+        }
+        String cursor = query.get("cursor");
+        TeamPage page = cursor != null
+                ? current.query(category, sortKey, cursor, limit)
+                : current.query(category, sortKey, intParameter(query, "offset", 0), limit);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"total\":").append(page.getTotal());
+        json.append(",\"offset\":").append(page.getOffset());
+        json.append(",\"nextCursor\":");
+        if (page.hasNext()) {
+            quote(json, page.getNextCursor());
+        } else {
+            json.append("null");
+        }
+        json.append(",\"teams\":[");
+        boolean first = true;
+        for (Team team : page.getTeams()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            teamJson(json, team);
+        }
+        json.append("]}");
+        send(exchange, 200, json.toString());
+    }
+
+    private static TeamListSnapshot.SortKey sortParameter(Map<String, String> query) {
+        String sort = query.getOrDefault("sort", "score");
+        switch (sort) {
+            case "score":
+                return TeamListSnapshot.SortKey.OVERALL_SCORE;
+            case "number":
+                return TeamListSnapshot.SortKey.TEAM_NUMBER;
+            case "name":
+                return TeamListSnapshot.SortKey.TEAM_NAME;
+            default:
+                throw new IllegalArgumentException("Invalid sort: " + sort + " (use score, number or name)");
+        }
+    }
+
+    private static StringBuilder teamJson(StringBuilder json, Team team) {
+        json.append("{\"teamNumber\":").append(team.getTeamNumber());
+        json.append(",\"teamName\":");
+        quote(json, team.getTeamName());
+        json.append(",\"university\":");
+        quote(json, team.getUniversityName());
+        json.append(",\"category\":");
+        quote(json, team.getCategory());
+        json.append(",\"scores\":[");
+        int[] scores = team.getScoreArray();
+        for (int i = 0; i < scores.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(scores[i]);
+        }
+        number(json.append("],\"overallScore\":"), team.getOverallScore());
+        return json.append('}');
+    }
+
+    private static StringBuilder totalsJson(StringBuilder json, ScoreLedger.Totals totals) {
+        json.append("{\"teamNumber\":").append(totals.getTeamNumber());
+        json.append(",\"submissions\":").append(totals.getSubmissions());
+        number(json.append(",\"averageScore\":"), totals.getAverageScore());
+        number(json.append(",\"creativity\":"), totals.getAverageCreativity());
+        number(json.append(",\"technicalImplementation\":"), totals.getAverageTechnicalImplementation());
+        number(json.append(",\"teamwork\":"), totals.getAverageTeamwork());
+        number(json.append(",\"presentation\":"), totals.getAveragePresentation());
+        return json.append('}');
+    }
+
+    // Append a JSON number - null for NaN and the infinities, which JSON has no literal for
+    private static void number(StringBuilder json, double value) {
+        if (Double.isFinite(value)) {
+            json.append(value);
+        } else {
+            json.append("null");
+        }
+    }
+
+    // Append a JSON string literal
+    private static void quote(StringBuilder json, String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    // Scores from a body of the form {"scores":[4,5,3,4,5]} (a bare array is accepted too)
+    static int[] parseScores(String body) {
+        int open = body.indexOf('[');
+        int close = body.indexOf(']', open + 1);
+        if (open < 0 || close < 0 || body.indexOf('[', open + 1) >= 0 && body.indexOf('[', open + 1) < close) {
+            throw new IllegalArgumentException("Expected {\"scores\":[...]}");
+        }
+        String prefix = body.substring(0, open).replaceAll("\\s", "");
+        String suffix = body.substring(close + 1).replaceAll("\\s", "");
+        boolean wrapped = prefix.equals("{\"scores\":") && suffix.equals("}");
+        if (!wrapped && !(prefix.isEmpty() && suffix.isEmpty())) {
+            throw new IllegalArgumentException("Expected {\"scores\":[...]}");
+        }
+
+        // An empty list would leave a team with no scores (and a NaN average)
+        String list = body.substring(open + 1, close).trim();
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("Expected at least one score");
+        }
+        String[] items = list.split(",");
+        int[] scores = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            try {
+                scores[i] = Integer.parseInt(items[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid score: " + items[i].trim());
+            }
+        }
+        return scores;
+    }
+
+    private static int parseTeamNumber(String s) {
+        return parseId(s, "team number");
+    }
+
+    private static int parseId(String s, String what) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + s);
+        }
+    }
+
+    // Path split on '/', without the empty leading part: /teams/101 -> [teams, 101]
+    private static String[] pathParts(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getRawPath();
+        while (path.endsWith("/") && path.length() > 1) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path.substring(1).split("/");
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                               URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_SIZE + 1);
+            if (body.length > MAX_BODY_SIZE) {
+                throw new IllegalArgumentException("Request body too large");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        quote(json, message == null ? "" : message);
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+// Growable list of primitive ints (avoids boxing for team numbers and slots)
+public class IntList {
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        values = new int[Math.max(capacity, 4)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int position) {
+        if (position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+        }
+        return values[position];
+    }
+
+    public void set(int position, int value) {
+        if (position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+        }
+        values[position] = value;
+    }
+
+    // Remove and return the last value
+    public int removeLast() {
+        return values[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Position of a value, or -1
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    // For a sorted list: position of a value, or a negative number if absent
+    public int binarySearch(int value) {
+        return Arrays.binarySearch(values, 0, size, value);
+    }
+
+    // For a sorted list: first position at or after 'from' whose value is at
+    // least 'value' (size if none). Gallops forward, so stepping through the
+    // list with increasing values costs O(log distance) per step.
+    public int lowerBound(int from, int value) {
+        if (from >= size || values[from] >= value) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        while (low + step < size && values[low + step] < value) {
+            low += step;
+            step <<= 1;
+        }
+        // values[low] < value <= values[low + step] (or past the end)
+        int high = Math.min(low + step, size);
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    // Copy of the values
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
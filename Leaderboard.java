@@ -0,0 +1,330 @@
+import java.util.Arrays;
+
+// Ranked team numbers - an order-statistic treap kept in primitive arrays.
+// Teams are ordered by overall score (highest first), then by team number.
+// Adding, removing or re-ranking one team is O(log n), so the ranking is kept
+// up to date instead of re-sorting the whole list. Snapshots read it out in
+// one O(n) walk (getAll) and answer rank, top-K and score-range queries from
+// that array.
+public class Leaderboard {
+    private static final int NIL = 0; // node 0 is the empty sentinel
+
+    private int[] left;
+    private int[] right;
+    private int[] size;
+    private int[] priority;
+    private int[] teamNumber;
+    private double[] score;
+
+    private int root = NIL;
+    private int nextNode = 1;
+    private int freeList = NIL;
+    private int seed = 0x2545F491;
+    private int splitLeft; // results of the last split
+    private int splitRight;
+
+    private TeamIndex nodes = new TeamIndex(); // team number -> node
+
+    public Leaderboard() {
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        left = new int[capacity];
+        right = new int[capacity];
+        size = new int[capacity];
+        priority = new int[capacity];
+        teamNumber = new int[capacity];
+        score = new double[capacity];
+    }
+
+    private void grow() {
+        int capacity = left.length << 1;
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        size = Arrays.copyOf(size, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        teamNumber = Arrays.copyOf(teamNumber, capacity);
+        score = Arrays.copyOf(score, capacity);
+    }
+
+    // Xorshift priorities - cheap and good enough to keep the treap balanced
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    // Ordering: higher score first, ties broken by lower team number
+    static int compare(double scoreA, int numberA, double scoreB, int numberB) {
+        int c = Double.compare(scoreB, scoreA);
+        return c != 0 ? c : Integer.compare(numberA, numberB);
+    }
+
+    private int compareToNode(double s, int number, int node) {
+        return compare(s, number, score[node], teamNumber[node]);
+    }
+
+    private void update(int node) {
+        size[node] = 1 + size[left[node]] + size[right[node]];
+    }
+
+    // Merge two treaps where every key in a sorts before every key in b
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    // Split into keys before (s, number) -> splitLeft, the rest -> splitRight
+    private void split(int node, double s, int number) {
+        if (node == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (compareToNode(s, number, node) > 0) {
+            split(right[node], s, number);
+            right[node] = splitLeft;
+            update(node);
+            splitLeft = node;
+        } else {
+            split(left[node], s, number);
+            left[node] = splitRight;
+            update(node);
+            splitRight = node;
+        }
+    }
+
+    private int newNode(int number, double s) {
+        int node;
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = left[node];
+        } else {
+            if (nextNode == left.length) {
+                grow();
+            }
+            node = nextNode++;
+        }
+        left[node] = NIL;
+        right[node] = NIL;
+        size[node] = 1;
+        priority[node] = nextPriority();
+        teamNumber[node] = number;
+        score[node] = s;
+        return node;
+    }
+
+    // Add a team under its overall score
+    public void add(int number, double s) {
+        if (nodes.containsKey(number)) {
+            throw new IllegalArgumentException("Team already ranked: " + number);
+        }
+        int node = newNode(number, s);
+        nodes.put(number, node);
+
+        split(root, s, number);
+        int before = splitLeft;
+        int after = splitRight;
+        root = merge(merge(before, node), after);
+    }
+
+    // Add many teams at once: sort the new entries, merge them with the
+    // existing ranking and rebuild the treap in O(n) - much cheaper than
+    // one insert per team when loading a file
+    public void addAll(int[] numbers, double[] scores, int count) {
+        int[] added = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (nodes.containsKey(numbers[i])) {
+                throw new IllegalArgumentException("Team already ranked: " + numbers[i]);
+            }
+            added[i] = newNode(numbers[i], scores[i]);
+            nodes.put(numbers[i], added[i]);
+        }
+        mergeSort(added, new int[count], 0, count);
+
+        int[] existing = nodesInOrder();
+        int[] all = new int[existing.length + count];
+        int a = 0, b = 0, k = 0;
+        while (a < existing.length && b < count) {
+            if (compareToNode(score[added[b]], teamNumber[added[b]], existing[a]) < 0) {
+                all[k++] = added[b++];
+            } else {
+                all[k++] = existing[a++];
+            }
+        }
+        while (a < existing.length) all[k++] = existing[a++];
+        while (b < count) all[k++] = added[b++];
+
+        root = build(all);
+    }
+
+    // Sort node ids by ranking order (stable merge sort on primitives)
+    private void mergeSort(int[] ids, int[] temp, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(ids, temp, from, mid);
+        mergeSort(ids, temp, mid, to);
+        if (compareToNode(score[ids[mid]], teamNumber[ids[mid]], ids[mid - 1]) >= 0) {
+            return; // already in order
+        }
+        System.arraycopy(ids, from, temp, from, to - from);
+        int a = from, b = mid, k = from;
+        while (a < mid && b < to) {
+            if (compareToNode(score[temp[b]], teamNumber[temp[b]], temp[a]) < 0) {
+                ids[k++] = temp[b++];
+            } else {
+                ids[k++] = temp[a++];
+            }
+        }
+        while (a < mid) ids[k++] = temp[a++];
+        while (b < to) ids[k++] = temp[b++];
+    }
+
+    // Build a treap from nodes already in ranking order (Cartesian tree on priority)
+    private int build(int[] ordered) {
+        int[] stack = new int[64];
+        int depth = 0;
+        for (int node : ordered) {
+            int last = NIL;
+            while (depth > 0 && priority[stack[depth - 1]] < priority[node]) {
+                last = stack[--depth];
+                update(last);
+            }
+            left[node] = last;
+            right[node] = NIL;
+            if (depth > 0) {
+                right[stack[depth - 1]] = node;
+            }
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth << 1);
+            }
+            stack[depth++] = node;
+        }
+        if (depth == 0) {
+            return NIL;
+        }
+        int top = stack[0];
+        while (depth > 0) {
+            update(stack[--depth]);
+        }
+        return top;
+    }
+
+    // All node ids in ranking order
+    private int[] nodesInOrder() {
+        int[] result = new int[size()];
+        int[] stack = new int[64];
+        int depth = 0;
+        int count = 0;
+        int node = root;
+        while (node != NIL || depth > 0) {
+            while (node != NIL) {
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth << 1);
+                stack[depth++] = node;
+                node = left[node];
+            }
+            node = stack[--depth];
+            result[count++] = node;
+            node = right[node];
+        }
+        return result;
+    }
+
+    // Remove a team, using the score it was ranked under
+    public boolean remove(int number) {
+        int node = nodes.remove(number);
+        if (node < 0) {
+            return false;
+        }
+        root = remove(root, score[node], number);
+
+        left[node] = freeList;
+        freeList = node;
+        return true;
+    }
+
+    private int remove(int node, double s, int number) {
+        int c = compareToNode(s, number, node);
+        if (c == 0) {
+            return merge(left[node], right[node]);
+        }
+        if (c < 0) {
+            left[node] = remove(left[node], s, number);
+        } else {
+            right[node] = remove(right[node], s, number);
+        }
+        update(node);
+        return node;
+    }
+
+    // Re-rank a team after its score changed
+    public void rerank(int number, double s) {
+        remove(number);
+        add(number, s);
+    }
+
+    public int size() {
+        return size[root];
+    }
+
+    // Get the team numbers ranked from (inclusive) to (exclusive), in rank order
+    public int[] getRange(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, size());
+        if (from >= to) {
+            return new int[0];
+        }
+        int[] result = new int[to - from];
+        int count = 0;
+
+        // In-order walk starting at rank 'from' using an explicit stack
+        int[] stack = new int[64];
+        int depth = 0;
+        int node = root;
+        int skip = from;
+        while (node != NIL) {
+            int leftSize = size[left[node]];
+            if (skip < leftSize) {
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth << 1);
+                stack[depth++] = node;
+                node = left[node];
+            } else if (skip == leftSize) {
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth << 1);
+                stack[depth++] = node;
+                break;
+            } else {
+                skip -= leftSize + 1;
+                node = right[node];
+            }
+        }
+
+        while (depth > 0 && count < result.length) {
+            node = stack[--depth];
+            result[count++] = teamNumber[node];
+            node = right[node];
+            while (node != NIL) {
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth << 1);
+                stack[depth++] = node;
+                node = left[node];
+            }
+        }
+        return result;
+    }
+
+    // Get all teams in rank order
+    public int[] getAll() {
+        return getRange(0, size());
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+// Application metrics: latency timers and counters, looked up by name once and
+// kept in static fields by the code they measure. Recording is a few atomic
+// adds - no locks and no allocation - so it can sit on hot paths.
+//
+//   private static final Metrics.Timer SEARCH = Metrics.timer("controller.searchTeam");
+//   long start = System.nanoTime();
+//   ...
+//   SEARCH.recordSince(start);
+//
+// Every metric can be published as a JMX MBean (domain "hackathon", e.g. in
+// JConsole) and dumped as text to a log file at a fixed interval.
+public final class Metrics {
+    private static final String DOMAIN = "hackathon";
+    // Seconds between dumps to the metrics log; 0 turns the dump off
+    private static final String DUMP_INTERVAL_PROPERTY = "hackathon.metrics.interval";
+    private static final int DEFAULT_DUMP_INTERVAL_SECONDS = 60;
+
+    private static final Map<String, Object> METRICS = new ConcurrentSkipListMap<>();
+    private static volatile boolean jmxEnabled;
+    private static ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    public interface TimerMBean {
+        long getCount();
+        double getTotalMillis();
+        double getMeanMillis();
+        double getMaxMillis();
+        double getP50Millis();
+        double getP90Millis();
+        double getP99Millis();
+    }
+
+    public interface CounterMBean {
+        long getCount();
+    }
+
+    // Latency histogram. Durations fall into buckets of four per power of two
+    // nanoseconds, so percentiles are accurate to within about 12%.
+    public static final class Timer implements TimerMBean {
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private Timer() {
+        }
+
+        public void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            count.increment();
+            totalNanos.add(nanos);
+            buckets.incrementAndGet(bucketOf(nanos));
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        // Record the time since a System.nanoTime() reading
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        private static int bucketOf(long nanos) {
+            if (nanos < (1 << SUB_BUCKET_BITS)) {
+                return (int) nanos;
+            }
+            int log = 63 - Long.numberOfLeadingZeros(nanos);
+            int sub = (int) (nanos >>> (log - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+            return ((log - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+        }
+
+        // Largest duration that falls into a bucket
+        private static long bucketLimit(int bucket) {
+            if (bucket < (1 << SUB_BUCKET_BITS)) {
+                return bucket;
+            }
+            int log = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+            long sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+            long base = ((1L << SUB_BUCKET_BITS) + sub) << (log - SUB_BUCKET_BITS);
+            return base + (1L << (log - SUB_BUCKET_BITS)) - 1;
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getTotalMillis() {
+            return totalNanos.sum() / 1e6;
+        }
+
+        @Override
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return percentileMillis(0.50);
+        }
+
+        @Override
+        public double getP90Millis() {
+            return percentileMillis(0.90);
+        }
+
+        @Override
+        public double getP99Millis() {
+            return percentileMillis(0.99);
+        }
+
+        public double percentileMillis(double fraction) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(bucketLimit(i), maxNanos.get()) / 1e6;
+                }
+            }
+            return maxNanos.get() / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms total=%.1fms",
+                    getCount(), getMeanMillis(), getP50Millis(), getP90Millis(), getP99Millis(),
+                    getMaxMillis(), getTotalMillis());
+        }
+    }
+
+    // Running total, e.g. of bytes written or lines rejected
+    public static final class Counter implements CounterMBean {
+        private final LongAdder count = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public String toString() {
+            return Long.toString(getCount());
+        }
+    }
+
+    // Timer with the given name, created on first use
+    public static Timer timer(String name) {
+        return (Timer) METRICS.computeIfAbsent(name, n -> register(n, new Timer()));
+    }
+
+    // Counter with the given name, created on first use
+    public static Counter counter(String name) {
+        return (Counter) METRICS.computeIfAbsent(name, n -> register(n, new Counter()));
+    }
+
+    private static Object register(String name, Object metric) {
+        if (jmxEnabled) {
+            registerMBean(name, metric);
+        }
+        return metric;
+    }
+
+    private static void registerMBean(String name, Object metric) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName;
+            if (metric instanceof Timer) {
+                objectName = new ObjectName(DOMAIN + ":type=Timer,name=" + name);
+                server.registerMBean(new StandardMBean((Timer) metric, TimerMBean.class), objectName);
+            } else {
+                objectName = new ObjectName(DOMAIN + ":type=Counter,name=" + name);
+                server.registerMBean(new StandardMBean((Counter) metric, CounterMBean.class), objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not publish metric " + name + ": " + e.getMessage());
+        }
+    }
+
+    // Publish every metric, now and later, as a JMX MBean
+    public static synchronized void enableJmx() {
+        if (jmxEnabled) {
+            return;
+        }
+        jmxEnabled = true;
+        for (Map.Entry<String, Object> entry : METRICS.entrySet()) {
+            registerMBean(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // All metrics as text, one per line, sorted by name
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> entry : METRICS.entrySet()) {
+            sb.append(String.format("%-36s %s%n", entry.getKey(), entry.getValue()));
+        }
+        return sb.toString();
+    }
+
+    // Append dump() to a log file every hackathon.metrics.interval seconds
+    // (default 60, 0 for never) and once more when the JVM exits
+    public static synchronized void startDumping(String filename) {
+        int interval = Integer.getInteger(DUMP_INTERVAL_PROPERTY, DEFAULT_DUMP_INTERVAL_SECONDS);
+        if (interval <= 0 || dumper != null) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> appendDump(filename), interval, interval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> appendDump(filename), "metrics-final-dump"));
+    }
+
+    private static void appendDump(String filename) {
+        try (PrintWriter out = new PrintWriter(new FileWriter(filename, true))) {
+            out.println("=== " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            out.print(dump());
+        } catch (IOException e) {
+            System.err.println("Error writing metrics to " + filename + ": " + e.getMessage());
+        }
+    }
+}
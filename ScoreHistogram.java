@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Counts of individual scores (0-5) in plain int buckets: overall, per category
+// and per category and score position (e.g. how often the AI teams' third score
+// was a 4). TeamList keeps one up to date on every add, remove and score change,
+// so reading a count never scans the teams or allocates.
+// Categories are matched case-insensitively, like TeamList's category buckets.
+public class ScoreHistogram {
+    private static final int BUCKETS = TeamStatistics.MAX_SCORE + 1;
+
+    private int[] overall = new int[BUCKETS];
+    // Per category code: BUCKETS counts
+    private int[][] byCategory = new int[0][];
+    // Per category code: BUCKETS counts for each score position, position-major
+    private int[][] byPosition = new int[0][];
+
+    // Category key (lower case) -> code, plus the first spelling seen for each code
+    private Map<String, Integer> codes = new HashMap<>();
+    private List<String> names = new ArrayList<>();
+
+    // Count every score of a store slot
+    void add(TeamStore store, int slot) {
+        update(store, slot, 1);
+    }
+
+    // Stop counting the scores of a store slot (call before the slot changes)
+    void remove(TeamStore store, int slot) {
+        update(store, slot, -1);
+    }
+
+    private void update(TeamStore store, int slot, int delta) {
+        int code = code(store.getCategory(slot));
+        int count = store.getScoreCount(slot);
+        int[] categoryCounts = byCategory[code];
+        int[] positionCounts = byPosition[code];
+        if (positionCounts.length < count * BUCKETS) {
+            positionCounts = Arrays.copyOf(positionCounts, count * BUCKETS);
+            byPosition[code] = positionCounts;
+        }
+        for (int position = 0; position < count; position++) {
+            int score = store.getScore(slot, position);
+            overall[score] += delta;
+            categoryCounts[score] += delta;
+            positionCounts[position * BUCKETS + score] += delta;
+        }
+    }
+
+    private int code(String category) {
+        String key = TeamList.categoryKey(category);
+        Integer code = codes.get(key);
+        if (code == null) {
+            code = names.size();
+            codes.put(key, code);
+            names.add(category);
+            byCategory = Arrays.copyOf(byCategory, code + 1);
+            byCategory[code] = new int[BUCKETS];
+            byPosition = Arrays.copyOf(byPosition, code + 1);
+            byPosition[code] = new int[0];
+        }
+        return code;
+    }
+
+    // Independent copy, e.g. for a snapshot
+    ScoreHistogram copy() {
+        ScoreHistogram copy = new ScoreHistogram();
+        copy.overall = overall.clone();
+        copy.byCategory = new int[byCategory.length][];
+        copy.byPosition = new int[byPosition.length][];
+        for (int code = 0; code < byCategory.length; code++) {
+            copy.byCategory[code] = byCategory[code].clone();
+            copy.byPosition[code] = byPosition[code].clone();
+        }
+        copy.codes = new HashMap<>(codes);
+        copy.names = new ArrayList<>(names);
+        return copy;
+    }
+
+    // Number of times a score (0-5) was awarded to any team
+    public int getCount(int score) {
+        return score < 0 || score >= BUCKETS ? 0 : overall[score];
+    }
+
+    // Number of categories seen so far (codes run from 0 to this - 1); a
+    // category stays counted, with zero counts, after its last team goes
+    public int getCategoryCodeCount() {
+        return names.size();
+    }
+
+    // Code of a category for the code-based queries, or -1 if never seen
+    public int getCategoryCode(String category) {
+        Integer code = codes.get(TeamList.categoryKey(category));
+        return code == null ? -1 : code;
+    }
+
+    public String getCategoryName(int code) {
+        return names.get(code);
+    }
+
+    // Number of times a score was awarded to a category's teams
+    public int getCount(int code, int score) {
+        return score < 0 || score >= BUCKETS ? 0 : byCategory[code][score];
+    }
+
+    public int getCount(String category, int score) {
+        int code = getCategoryCode(category);
+        return code < 0 ? 0 : getCount(code, score);
+    }
+
+    // Number of scores counted for a category's teams
+    public int getTotal(int code) {
+        int total = 0;
+        for (int count : byCategory[code]) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Number of score positions seen for a category (5 for the usual five scores)
+    public int getPositionCount(int code) {
+        return byPosition[code].length / BUCKETS;
+    }
+
+    // Number of times a category's teams got the given score at a position
+    public int getCount(int code, int position, int score) {
+        int[] positionCounts = byPosition[code];
+        int index = position * BUCKETS + score;
+        return score < 0 || score >= BUCKETS || position < 0 || index >= positionCounts.length
+                ? 0 : positionCounts[index];
+    }
+
+    // Average score at a position across a category's teams (0 if none)
+    public double getPositionAverage(int code, int position) {
+        int[] positionCounts = byPosition[code];
+        if (position < 0 || (position + 1) * BUCKETS > positionCounts.length) {
+            return 0;
+        }
+        long total = 0;
+        long sum = 0;
+        for (int score = 0; score < BUCKETS; score++) {
+            int count = positionCounts[position * BUCKETS + score];
+            total += count;
+            sum += score * count;
+        }
+        return total == 0 ? 0 : sum / (double) total;
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running totals of the judges' Score submissions, per team.
+// Many judges can submit at once: each team's totals are LongAdders (striped
+// counters), so submitters never wait on a shared lock and readers never block
+// submitters. A judge scoring the same team again replaces their earlier score.
+//
+// The ledger lives in memory only: the judges' scores are lost when the
+// program stops (HackathonServer warns about this when it starts).
+public class ScoreLedger {
+    // The submission count and the sum of all components share one adder, so a
+    // reader always sees a count and a sum from the same set of submissions:
+    // count in the top 24 bits, component sum in the low 40 bits
+    private static final int COUNT_SHIFT = 40;
+    private static final int COMPONENTS = 4;
+
+    private final Map<Integer, TeamTally> tallies = new ConcurrentHashMap<>();
+    private final AtomicInteger nextScoreId = new AtomicInteger(1);
+
+    // Totals for one team, and the scores behind them
+    private static class TeamTally {
+        final int teamNumber;
+        final Map<Integer, Score> latest = new ConcurrentHashMap<>(); // judge id -> latest score
+        final LongAdder packed = new LongAdder();
+        final LongAdder creativity = new LongAdder();
+        final LongAdder technical = new LongAdder();
+        final LongAdder teamwork = new LongAdder();
+        final LongAdder presentation = new LongAdder();
+
+        TeamTally(int teamNumber) {
+            this.teamNumber = teamNumber;
+        }
+    }
+
+    // Averages of the scores submitted for one team
+    public static class Totals {
+        private final int teamNumber;
+        private final int submissions;
+        private final double averageScore;
+        private final double[] componentAverages;
+
+        Totals(int teamNumber, int submissions, double averageScore, double[] componentAverages) {
+            this.teamNumber = teamNumber;
+            this.submissions = submissions;
+            this.averageScore = averageScore;
+            this.componentAverages = componentAverages;
+        }
+
+        public int getTeamNumber() {
+            return teamNumber;
+        }
+
+        public int getSubmissions() {
+            return submissions;
+        }
+
+        // Mean of every submitted component, 0-5
+        public double getAverageScore() {
+            return averageScore;
+        }
+
+        public double getAverageCreativity() {
+            return componentAverages[0];
+        }
+
+        public double getAverageTechnicalImplementation() {
+            return componentAverages[1];
+        }
+
+        public double getAverageTeamwork() {
+            return componentAverages[2];
+        }
+
+        public double getAveragePresentation() {
+            return componentAverages[3];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Team %d: %.2f from %d scores", teamNumber, averageScore, submissions);
+        }
+    }
+
+    public int nextScoreId() {
+        return nextScoreId.getAndIncrement();
+    }
+
+    // Record a judge's score for a team, replacing that judge's previous score.
+    // The ledger keeps the Score, so it must not be changed afterwards.
+    public void submit(Score score) {
+        if (!score.validateScores()) {
+            throw new IllegalArgumentException("Scores must be between 0 and 5");
+        }
+        TeamTally tally = tallies.computeIfAbsent(score.getTeam().getTeamNumber(), TeamTally::new);
+
+        // put() hands each replacement the score it replaced, so concurrent
+        // resubmissions by the same judge still add up to the last one
+        Score previous = tally.latest.put(score.getJudge().getJudgeId(), score);
+        long countDelta = previous == null ? 1 : 0;
+        long sumDelta = componentSum(score) - (previous == null ? 0 : componentSum(previous));
+        tally.packed.add((countDelta << COUNT_SHIFT) + sumDelta);
+        tally.creativity.add(score.getCreativity() - (previous == null ? 0 : previous.getCreativity()));
+        tally.technical.add(score.getTechnicalImplementation() - (previous == null ? 0 : previous.getTechnicalImplementation()));
+        tally.teamwork.add(score.getTeamwork() - (previous == null ? 0 : previous.getTeamwork()));
+        tally.presentation.add(score.getPresentation() - (previous == null ? 0 : previous.getPresentation()));
+    }
+
+    private static long componentSum(Score score) {
+        return score.getCreativity() + score.getTechnicalImplementation()
+                + score.getTeamwork() + score.getPresentation();
+    }
+
+    // Totals for a team, or null if no judge has scored it
+    public Totals getTotals(int teamNumber) {
+        TeamTally tally = tallies.get(teamNumber);
+        return tally == null ? null : totalsOf(tally);
+    }
+
+    private static Totals totalsOf(TeamTally tally) {
+        // A replacement can land before the score it replaced, leaving the sum
+        // briefly negative, so round the count to nearest rather than truncating
+        long packed = tally.packed.sum();
+        int submissions = (int) ((packed + (1L << (COUNT_SHIFT - 1))) >> COUNT_SHIFT);
+        long sum = Math.max(0, packed - ((long) submissions << COUNT_SHIFT));
+        if (submissions <= 0) {
+            return new Totals(tally.teamNumber, 0, 0, new double[COMPONENTS]);
+        }
+        // The component sums are separate adders and may be a submission behind
+        double[] components = {
+            tally.creativity.sum() / (double) submissions,
+            tally.technical.sum() / (double) submissions,
+            tally.teamwork.sum() / (double) submissions,
+            tally.presentation.sum() / (double) submissions
+        };
+        return new Totals(tally.teamNumber, submissions, sum / (double) (submissions * COMPONENTS), components);
+    }
+
+    // Scored teams, highest average first (ties by team number)
+    public List<Totals> getRankedTotals() {
+        List<Totals> ranked = new ArrayList<>(tallies.size());
+        for (TeamTally tally : tallies.values()) {
+            Totals totals = totalsOf(tally);
+            if (totals.getSubmissions() > 0) {
+                ranked.add(totals);
+            }
+        }
+        ranked.sort((a, b) -> {
+            int c = Double.compare(b.getAverageScore(), a.getAverageScore());
+            return c != 0 ? c : Integer.compare(a.getTeamNumber(), b.getTeamNumber());
+        });
+        return ranked;
+    }
+
+    // The latest score each judge gave a team
+    public List<Score> getScores(int teamNumber) {
+        TeamTally tally = tallies.get(teamNumber);
+        return tally == null ? new ArrayList<>() : new ArrayList<>(tally.latest.values());
+    }
+
+    // Forget a team's scores, e.g. when the team is deleted. A submission
+    // still in progress lands in the dropped tally and is lost with it.
+    public void removeTeam(int teamNumber) {
+        tallies.remove(teamNumber);
+    }
+
+    public void clear() {
+        tallies.clear();
+    }
+}
@@ -0,0 +1,141 @@
+// Batch scoring: the four category formulas over packed byte scores, as used by
+// TeamStore (one row of 'stride' bytes per team, with its own score count).
+// Each batch is a single allocation-free loop - no Team objects, no virtual
+// calls and no cloning or sorting - so rescoring a million teams takes a few
+// milliseconds.
+//
+// The results are bit-for-bit the same as the Team subclasses' formulas: the
+// scores are small integers and the weights multiples of 0.5, so every partial
+// sum is exact and only the final division rounds, exactly as it does there.
+public final class ScoringEngine {
+    // AI weights (1, 1.5, 2, 1.5, 1) doubled, so the weighted sum is an integer
+    private static final int[] AI_DOUBLE_WEIGHTS = {2, 3, 4, 3, 2};
+    // Sum of the first n AI weights
+    private static final double[] AI_WEIGHT_TOTALS = {0.0, 1.0, 2.5, 4.5, 6.0, 7.0};
+
+    private ScoringEngine() {
+    }
+
+    // Overall score of one team's scores: count bytes starting at offset
+    public static double score(byte kind, byte[] scores, int offset, int count) {
+        switch (kind) {
+            case TeamStore.CYBERSECURITY:
+                return cybersecurity(scores, offset, count);
+            case TeamStore.AI:
+                return ai(scores, offset, count);
+            case TeamStore.WEB_DEV:
+                return webDev(scores, offset, count);
+            case TeamStore.MOBILE:
+                return mobile(scores, offset, count);
+            default:
+                throw new IllegalArgumentException("Unknown team kind: " + kind);
+        }
+    }
+
+    // Score rows [from, to) that all use one formula into out[from, to)
+    public static void scoreBatch(byte kind, byte[] scores, int stride, byte[] counts, int from, int to, double[] out) {
+        switch (kind) {
+            case TeamStore.CYBERSECURITY:
+                for (int row = from, base = from * stride; row < to; row++, base += stride) {
+                    out[row] = cybersecurity(scores, base, counts[row]);
+                }
+                break;
+            case TeamStore.AI:
+                for (int row = from, base = from * stride; row < to; row++, base += stride) {
+                    out[row] = ai(scores, base, counts[row]);
+                }
+                break;
+            case TeamStore.WEB_DEV:
+                for (int row = from, base = from * stride; row < to; row++, base += stride) {
+                    out[row] = webDev(scores, base, counts[row]);
+                }
+                break;
+            case TeamStore.MOBILE:
+                for (int row = from, base = from * stride; row < to; row++, base += stride) {
+                    out[row] = mobile(scores, base, counts[row]);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown team kind: " + kind);
+        }
+    }
+
+    // Score rows [0, size) of mixed kinds; consecutive rows of the same kind go
+    // through scoreBatch together
+    public static void scoreAll(byte[] kinds, byte[] scores, int stride, byte[] counts, int size, double[] out) {
+        int from = 0;
+        while (from < size) {
+            byte kind = kinds[from];
+            int to = from + 1;
+            while (to < size && kinds[to] == kind) {
+                to++;
+            }
+            scoreBatch(kind, scores, stride, counts, from, to, out);
+            from = to;
+        }
+    }
+
+    // Average of the top 4 scores (of all of them when there are 4 or fewer)
+    private static double cybersecurity(byte[] scores, int offset, int count) {
+        int sum = 0;
+        int min = Integer.MAX_VALUE;
+        for (int i = offset; i < offset + count; i++) {
+            sum += scores[i];
+            min = Math.min(min, scores[i]);
+        }
+        if (count <= 4) {
+            return (double) sum / count; // NaN for no scores, like the sort-based formula
+        }
+        if (count == 5) {
+            return (double) (sum - min) / 4;
+        }
+        // More than five scores: take the four highest, counting down from the top score
+        int top = 0;
+        int taken = 0;
+        for (int value = TeamStatistics.MAX_SCORE; value >= 0 && taken < 4; value--) {
+            for (int i = offset; i < offset + count && taken < 4; i++) {
+                if (scores[i] == value) {
+                    top += value;
+                    taken++;
+                }
+            }
+        }
+        return (double) top / 4;
+    }
+
+    // Weighted average of the first five scores (weights 1, 1.5, 2, 1.5, 1)
+    private static double ai(byte[] scores, int offset, int count) {
+        int n = Math.min(count, AI_DOUBLE_WEIGHTS.length);
+        int doubledSum = 0;
+        for (int i = 0; i < n; i++) {
+            doubledSum += scores[offset + i] * AI_DOUBLE_WEIGHTS[i];
+        }
+        return n > 0 ? (doubledSum / 2.0) / AI_WEIGHT_TOTALS[n] : 0;
+    }
+
+    // Average without the highest and lowest score (plain average for 2 or fewer)
+    private static double webDev(byte[] scores, int offset, int count) {
+        int sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = offset; i < offset + count; i++) {
+            int score = scores[i];
+            sum += score;
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        if (count <= 2) {
+            return count > 0 ? (double) sum / count : 0;
+        }
+        return (double) (sum - min - max) / (count - 2);
+    }
+
+    // Plain average
+    private static double mobile(byte[] scores, int offset, int count) {
+        int sum = 0;
+        for (int i = offset; i < offset + count; i++) {
+            sum += scores[i];
+        }
+        return count > 0 ? (double) sum / count : 0;
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 // Abstract Team Base Class
 public abstract class Team {
     protected int teamNumber;
@@ -6,6 +8,10 @@ public abstract class Team {
     protected String category;
     protected int[] scores;
     
+    // Cached overall score and the scores it was computed from
+    private double cachedOverallScore;
+    private int[] cachedScores;
+    
     // Constructor
     public Team(int teamNumber, String teamName, String universityName, String category, int[] scores) {
         this.teamNumber = teamNumber;
@@ -54,10 +60,28 @@ public abstract class Team {
     
     public void setScores(int[] scores) {
         this.scores = scores;
+        this.cachedScores = null;
+    }
+    
+    // Get overall score - computed once and reused until the scores change.
+    // The scores array is compared against a private copy so callers that
+    // mutate the array from getScoreArray() still get a fresh result.
+    public double getOverallScore() {
+        if (cachedScores == null || !Arrays.equals(cachedScores, scores)) {
+            cachedOverallScore = calculateOverallScore();
+            cachedScores = scores.clone();
+        }
+        return cachedOverallScore;
+    }
+    
+    // Seed the cache with an overall score already known for the current scores
+    void primeOverallScore(double overallScore) {
+        cachedOverallScore = overallScore;
+        cachedScores = scores.clone();
     }
     
     // Abstract method - must be implemented by subclasses
-    public abstract double getOverallScore();
+    protected abstract double calculateOverallScore();
     
     // Get full details
     public String getFullDetails() {
@@ -0,0 +1,434 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Byte-level CSV parser for team files.
+// The file is memory-mapped and scanned in place: team numbers and scores are
+// parsed straight from the bytes, and the only Strings created per line are the
+// team name and university. Fields may be quoted ("Smith, Jones & Co") with ""
+// as an escaped quote; quoted fields cannot span lines. Files are read as
+// UTF-8, the charset FileManager writes them in.
+public class TeamCsvParser {
+    // Largest region mapped at once - windows always end on a line boundary
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int MAX_FIELDS = 4 + Byte.MAX_VALUE;
+    // Smallest byte range handed to a worker in a parallel parse
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    // Bytes parsed between progress reports in a sequential parse
+    private static final int PROGRESS_STEP = 4 << 20;
+
+    // Category names recognised in the file (lower case, matched ignoring case)
+    private static final byte[][] CATEGORY_NAMES = {
+        ascii("cybersecurity"),
+        ascii("artificial intelligence"), ascii("ai"),
+        ascii("web development"), ascii("web"),
+        ascii("mobile development"), ascii("mobile")
+    };
+    private static final byte[] CATEGORY_KINDS = {
+        TeamStore.CYBERSECURITY,
+        TeamStore.AI, TeamStore.AI,
+        TeamStore.WEB_DEV, TeamStore.WEB_DEV,
+        TeamStore.MOBILE, TeamStore.MOBILE
+    };
+
+    // Receives each parsed team, or the error for a line that could not be parsed
+    public interface Handler {
+        void team(Team team);
+
+        void error(String line, Exception e);
+
+        // Called every few MB with the bytes handled so far. Throwing here
+        // (e.g. a CancellationException) stops the parse and leaves parseFile.
+        default void progress(long bytesDone, long totalBytes) {
+        }
+    }
+
+    // Field boundaries of the current line (start/end pairs), reused per line
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private final boolean[] fieldQuoted = new boolean[MAX_FIELDS];
+    private byte[] scratch = new byte[256];
+    // Bounds of the line currently being parsed
+    private int lineStart;
+    private int lineEnd;
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Parse a whole file, skipping the header line
+    public static void parseFile(String filename, Handler handler) throws IOException {
+        parseFile(filename, handler, false);
+    }
+
+    // Parse a whole file, optionally splitting it into newline-aligned byte
+    // ranges that are parsed concurrently on the common ForkJoinPool. Each
+    // range is parsed into its own buffer and the buffers are replayed to the
+    // handler in file order, so the handler sees exactly what a sequential
+    // parse would produce (same teams, same errors, same order).
+    public static void parseFile(String filename, Handler handler, boolean parallel) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            TeamCsvParser parser = new TeamCsvParser();
+            long size = channel.size();
+            long position = 0;
+            boolean header = true;
+
+            while (position < size) {
+                long length = Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < size) {
+                    end = lastLineEnd(buffer, end);
+                    if (end == 0) {
+                        throw new IOException("Line longer than " + WINDOW_SIZE + " bytes at offset " + position);
+                    }
+                }
+
+                int from = 0;
+                if (header) {
+                    from = nextLine(buffer, 0, end);
+                    header = false;
+                }
+                if (parallel) {
+                    parseParallel(buffer, from, end, handler, position, size);
+                } else {
+                    while (from < end) {
+                        int to = from + PROGRESS_STEP >= end ? end : nextLine(buffer, from + PROGRESS_STEP - 1, end);
+                        parser.parseRange(buffer, from, to, handler);
+                        handler.progress(position + to, size);
+                        from = to;
+                    }
+                }
+                position += end;
+            }
+            handler.progress(size, size);
+        }
+    }
+
+    // Parse [from, end) as newline-aligned chunks on the common pool, replaying results in order
+    private static void parseParallel(ByteBuffer buffer, int from, int end, Handler handler,
+                                      long position, long size) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (end - from) / (parallelism * 4));
+
+        List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+        int chunkStart = from;
+        while (chunkStart < end) {
+            int chunkEnd = chunkStart + chunkSize >= end ? end : nextLine(buffer, chunkStart + chunkSize - 1, end);
+            Chunk chunk = new Chunk(buffer.duplicate(), chunkStart, chunkEnd);
+            tasks.add(ForkJoinPool.commonPool().submit(chunk::parse));
+            chunkStart = chunkEnd;
+        }
+
+        // Later chunks keep parsing while earlier ones are handed over
+        int replayed = 0;
+        try {
+            for (ForkJoinTask<Chunk> task : tasks) {
+                Chunk chunk = task.join();
+                chunk.replay(handler);
+                replayed++;
+                handler.progress(position + chunk.to, size);
+            }
+        } finally {
+            // Stopped early (e.g. cancelled) - drop the chunks nobody will replay
+            for (int i = replayed; i < tasks.size(); i++) {
+                tasks.get(i).cancel(false);
+            }
+        }
+    }
+
+    // One byte range of a parallel parse, buffered until it can be replayed in order
+    private static class Chunk implements Handler {
+        private final ByteBuffer buffer;
+        private final int from;
+        private final int to;
+        private final TeamCsvParser parser = new TeamCsvParser();
+        private final List<Object> events = new ArrayList<>(); // Team or LineError, in line order
+        private final IntList teamLines = new IntList(); // start/end pairs for each Team event
+
+        Chunk(ByteBuffer buffer, int from, int to) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        Chunk parse() {
+            parser.parseRange(buffer, from, to, this);
+            return this;
+        }
+
+        @Override
+        public void team(Team team) {
+            events.add(team);
+            teamLines.add(parser.lineStart);
+            teamLines.add(parser.lineEnd);
+        }
+
+        @Override
+        public void error(String line, Exception e) {
+            events.add(new LineError(line, e));
+        }
+
+        // Hand the buffered results to the real handler. A team the handler
+        // rejects is reported against its line, as parseRange would have done.
+        void replay(Handler handler) {
+            int teamIndex = 0;
+            for (Object event : events) {
+                if (event instanceof LineError) {
+                    LineError lineError = (LineError) event;
+                    handler.error(lineError.line, lineError.error);
+                    continue;
+                }
+                int start = teamLines.get(teamIndex * 2);
+                int end = teamLines.get(teamIndex * 2 + 1);
+                teamIndex++;
+                try {
+                    handler.team((Team) event);
+                } catch (RuntimeException e) {
+                    handler.error(decode(buffer, start, end), e);
+                }
+            }
+        }
+    }
+
+    private static class LineError {
+        final String line;
+        final Exception error;
+
+        LineError(String line, Exception error) {
+            this.line = line;
+            this.error = error;
+        }
+    }
+
+    // Offset just past the last newline in [0, end), or 0 if there is none
+    static int lastLineEnd(ByteBuffer buffer, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    // Offset of the start of the line after the one containing 'from'
+    static int nextLine(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    // Parse every line in [from, end) of the buffer
+    public void parseRange(ByteBuffer buffer, int from, int end, Handler handler) {
+        int lineStart = from;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            // A blank line is reported like any other malformed line
+            this.lineStart = lineStart;
+            this.lineEnd = lineEnd;
+            try {
+                handler.team(parseLine(buffer, lineStart, lineEnd));
+            } catch (RuntimeException e) {
+                handler.error(decode(buffer, lineStart, lineEnd), e);
+            }
+            lineStart = next;
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    // Parse one line (without its line terminator) into a team
+    Team parseLine(ByteBuffer buffer, int start, int end) {
+        int fields = splitFields(buffer, start, end);
+        if (fields < 4) {
+            throw new IllegalArgumentException("Invalid line format: needs at least 4 fields");
+        }
+
+        int teamNumber = parseInt(buffer, 0);
+        String teamName = text(buffer, 1);
+        String universityName = text(buffer, 2);
+        byte kind = categoryKind(buffer, 3);
+
+        int[] scores = new int[fields - 4];
+        for (int i = 4; i < fields; i++) {
+            scores[i - 4] = parseInt(buffer, i);
+        }
+
+        return TeamStore.newTeam(kind, teamNumber, teamName, universityName, scores);
+    }
+
+    // Record the trimmed bounds of each field; returns the field count
+    private int splitFields(ByteBuffer buffer, int start, int end) {
+        int count = 0;
+        int i = start;
+        while (true) {
+            if (count == MAX_FIELDS) {
+                throw new IllegalArgumentException("Too many fields");
+            }
+            while (i < end && isSpace(buffer.get(i))) {
+                i++;
+            }
+
+            if (i < end && buffer.get(i) == '"') {
+                // Quoted field - runs to the closing quote, "" is an escaped quote
+                int contentStart = ++i;
+                while (true) {
+                    if (i >= end) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    if (buffer.get(i) == '"') {
+                        if (i + 1 < end && buffer.get(i + 1) == '"') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                fieldStart[count] = contentStart;
+                fieldEnd[count] = i;
+                fieldQuoted[count] = true;
+                i++;
+                while (i < end && buffer.get(i) != ',') {
+                    if (!isSpace(buffer.get(i))) {
+                        throw new IllegalArgumentException("Unexpected text after quoted field");
+                    }
+                    i++;
+                }
+            } else {
+                int fieldFrom = i;
+                while (i < end && buffer.get(i) != ',') {
+                    i++;
+                }
+                int fieldTo = i;
+                while (fieldTo > fieldFrom && isSpace(buffer.get(fieldTo - 1))) {
+                    fieldTo--;
+                }
+                fieldStart[count] = fieldFrom;
+                fieldEnd[count] = fieldTo;
+                fieldQuoted[count] = false;
+            }
+            count++;
+
+            if (i >= end) {
+                // Like String.split, ignore trailing empty fields ("...,4,4,")
+                while (count > 0 && fieldStart[count - 1] == fieldEnd[count - 1] && !fieldQuoted[count - 1]) {
+                    count--;
+                }
+                return count;
+            }
+            i++; // skip the comma
+        }
+    }
+
+    // Parse a field as an int without creating a String
+    private int parseInt(ByteBuffer buffer, int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == end) {
+                throw badNumber(buffer, field);
+            }
+        }
+
+        // Accumulate negatively so Integer.MIN_VALUE parses without overflow
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10) {
+                throw badNumber(buffer, field);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw badNumber(buffer, field);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private NumberFormatException badNumber(ByteBuffer buffer, int field) {
+        return new NumberFormatException("For input string: \"" + text(buffer, field) + "\"");
+    }
+
+    // Decode a field as UTF-8 text (unescaping quotes in quoted fields)
+    private String text(ByteBuffer buffer, int field) {
+        int start = fieldStart[field];
+        int end = fieldEnd[field];
+        if (end - start > scratch.length) {
+            scratch = new byte[Math.max(end - start, scratch.length << 1)];
+        }
+
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            scratch[length++] = b;
+            if (b == '"' && fieldQuoted[field]) {
+                i++; // skip the second quote of ""
+            }
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Match the category field against the known names, ignoring ASCII case
+    private byte categoryKind(ByteBuffer buffer, int field) {
+        int start = fieldStart[field];
+        int length = fieldEnd[field] - start;
+        for (int c = 0; c < CATEGORY_NAMES.length; c++) {
+            byte[] name = CATEGORY_NAMES[c];
+            if (name.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && toLower(buffer.get(start + i)) == name[i]) {
+                i++;
+            }
+            if (i == length) {
+                return CATEGORY_KINDS[c];
+            }
+        }
+        return TeamStore.MOBILE; // Default to Mobile team for unknown categories
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.Arrays;
+
+// Primitive int-to-int hash index (team number -> list position)
+// Open addressing with linear probing, so no boxing and no per-entry objects
+public class TeamIndex {
+    private static final int MISSING = -1;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    public TeamIndex() {
+        this(16);
+    }
+
+    public TeamIndex(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    // Spread the bits of the key so sequential team numbers don't cluster
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // Find the slot holding the key, or -1 if not present
+    private int find(int key) {
+        int i = slot(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    // Get the value for a key, or -1 if not present
+    public int get(int key) {
+        int i = find(key);
+        return i == MISSING ? MISSING : values[i];
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) != MISSING;
+    }
+
+    // Insert or overwrite a key
+    public void put(int key, int value) {
+        int i = slot(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    // Remove a key, returning its value or -1 if not present
+    public int remove(int key) {
+        int i = find(key);
+        if (i == MISSING) {
+            return MISSING;
+        }
+        int removed = values[i];
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (used[j]) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        used[gap] = false;
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,396 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Append-only journal of team edits, kept next to the CSV file.
+// Every add, update and delete is appended as one small record, so saving an
+// edit costs O(1) instead of rewriting the whole CSV. On startup the journal is
+// replayed over the loaded teams; once it grows large it is compacted into the
+// CSV file and truncated.
+//
+// Layout (big-endian):
+//   header  magic "HKTJ", int version
+//   records int payload length, byte op, payload, int CRC32 of op + payload
+//           ADD/UPDATE payload: int number, byte kind, category, name,
+//           university (each int length + UTF-8), byte score count, scores
+//           DELETE payload: int number
+//
+// Appends never wait for the disk: a background flusher writes everything
+// queued since its last write and forces it with a single fsync (group commit).
+// Callers that need a change on disk before going on call sync().
+//
+// If a write fails, the file is cut back to the records already on disk, the
+// queued records are dropped and the journal takes no more appends until it is
+// reset (getFailure says why). The caller must then save the teams some other
+// way - HackathonModel writes the data file, which resets the journal.
+public class TeamJournal implements AutoCloseable {
+    private static final int MAGIC = 0x484B544A; // "HKTJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte ADD = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+
+    private static final Metrics.Timer FLUSH_TIMER = Metrics.timer("io.journal.flush");
+    private static final Metrics.Counter FLUSH_BYTES = Metrics.counter("io.journal.flush.bytes");
+
+    private final String filename;
+    private final FileChannel channel;
+    private final Thread flusher;
+
+    // Guarded by 'this'
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;   // records queued so far
+    private long durable;    // records written and forced so far
+    private long length;     // file length including queued records
+    private long written;    // file length up to the last record on disk
+    private IOException failure; // set by a failed write, cleared by reset
+    private boolean closed;
+
+    private TeamJournal(String filename, FileChannel channel, long length) {
+        this.filename = filename;
+        this.channel = channel;
+        this.length = length;
+        this.written = length;
+        this.flusher = new Thread(this::flushLoop, "team-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Journal kept next to a CSV file (HackathonTeams.csv -> HackathonTeams.journal)
+    public static String journalFileFor(String csvFilename) {
+        String base = csvFilename.toLowerCase().endsWith(".csv")
+                ? csvFilename.substring(0, csvFilename.length() - 4) : csvFilename;
+        return base + ".journal";
+    }
+
+    // Open (or create) a journal, replaying its records into the team list.
+    // A torn or corrupt tail - e.g. from a crash mid-write - is cut off, as is
+    // everything from the first record that can't be applied.
+    public static TeamJournal open(String filename, TeamList teamList) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long valid = replay(filename, channel, teamList);
+            if (valid < channel.size()) {
+                System.err.println("Discarding " + (channel.size() - valid) + " corrupt bytes at the end of " + filename);
+                channel.truncate(valid);
+            }
+            if (valid == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                channel.write(header, 0);
+                channel.force(true);
+                valid = HEADER_SIZE;
+            }
+            channel.position(valid);
+            return new TeamJournal(filename, channel, valid);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Apply every intact record; returns the length of the intact prefix
+    private static long replay(String filename, FileChannel channel, TeamList teamList) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // keep reading
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a team journal: " + filename);
+        }
+
+        int applied = 0;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= 4) {
+            int start = buffer.position();
+            int payloadLength = buffer.getInt();
+            if (payloadLength < 4 || payloadLength > buffer.remaining() - 5) {
+                buffer.position(start);
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), start + 4, payloadLength + 1);
+            byte op = buffer.get();
+            ByteBuffer payload = buffer.slice(buffer.position(), payloadLength);
+            buffer.position(buffer.position() + payloadLength);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                buffer.position(start);
+                break;
+            }
+            // A record that fails leaves the list as it was (replaceTeam checks
+            // the team first), so the changes before it stand
+            try {
+                apply(op, payload, teamList);
+                applied++;
+            } catch (RuntimeException e) {
+                System.err.println("Bad journal record at byte " + start + " of " + filename + ": " + e.getMessage());
+                buffer.position(start);
+                break;
+            }
+        }
+        if (applied > 0) {
+            System.out.println("Replayed " + applied + " changes from " + filename);
+        }
+        return buffer.position();
+    }
+
+    // Replaying is idempotent: adds and updates replace any team with the same
+    // number, deletes of missing teams are ignored
+    private static void apply(byte op, ByteBuffer payload, TeamList teamList) {
+        int teamNumber = payload.getInt();
+        switch (op) {
+            case ADD:
+            case UPDATE:
+                byte kind = payload.get();
+                String category = readString(payload);
+                String teamName = readString(payload);
+                String universityName = readString(payload);
+                int[] scores = new int[payload.get()];
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = payload.get();
+                }
+                Team team = TeamStore.newTeam(kind, teamNumber, teamName, universityName, scores);
+                if (!category.equals(team.getCategory())) {
+                    team.setCategory(category);
+                }
+                teamList.replaceTeam(team);
+                break;
+            case DELETE:
+                teamList.removeTeam(teamNumber);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown journal operation " + op);
+        }
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void logAdd(Team team) {
+        append(ADD, team.getTeamNumber(), team);
+    }
+
+    public void logUpdate(Team team) {
+        append(UPDATE, team.getTeamNumber(), team);
+    }
+
+    public void logDelete(int teamNumber) {
+        append(DELETE, teamNumber, null);
+    }
+
+    private void append(byte op, int teamNumber, Team team) {
+        byte[] record = encode(op, teamNumber, team);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed: " + filename);
+            }
+            if (failure != null) {
+                return; // not taking changes until reset (see getFailure)
+            }
+            pending.write(record, 0, record.length);
+            appended++;
+            length += record.length;
+            notifyAll();
+        }
+    }
+
+    private static byte[] encode(byte op, int teamNumber, Team team) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // length, filled in below
+            out.writeByte(op);
+            out.writeInt(teamNumber);
+            if (team != null) {
+                int[] scores = team.getScoreArray();
+                out.writeByte(TeamStore.kindOf(team));
+                writeString(out, team.getCategory());
+                writeString(out, team.getTeamName());
+                writeString(out, team.getUniversityName());
+                out.writeByte(scores.length);
+                for (int score : scores) {
+                    out.writeByte(score);
+                }
+            }
+            CRC32 crc = new CRC32();
+            byte[] record = bytes.toByteArray();
+            crc.update(record, 4, record.length - 4);
+            out.writeInt((int) crc.getValue());
+            record = bytes.toByteArray();
+            ByteBuffer.wrap(record).putInt(0, record.length - 9);
+            return record;
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // cannot happen in memory
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Background group commit: write whatever queued up while the last fsync ran
+    private void flushLoop() {
+        while (true) {
+            byte[] batch;
+            long batchEnd;
+            synchronized (this) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) {
+                    return; // closed and drained
+                }
+                batch = pending.toByteArray();
+                batchEnd = appended;
+                pending.reset();
+            }
+
+            IOException error = null;
+            long start = System.nanoTime();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                FLUSH_TIMER.recordSince(start);
+                FLUSH_BYTES.add(batch.length);
+            } catch (IOException e) {
+                error = e;
+                System.err.println("Error writing journal: " + e.getMessage());
+            }
+
+            synchronized (this) {
+                if (error == null) {
+                    written += batch.length;
+                    durable = batchEnd;
+                } else {
+                    fail(error);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    // After a failed write: cut the file back to the records on disk (so no
+    // half-written record is left to replay) and drop everything queued
+    private void fail(IOException error) {
+        failure = error;
+        try {
+            channel.truncate(written);
+            channel.position(written);
+        } catch (IOException e) {
+            error.addSuppressed(e); // a torn tail is still cut off by its CRC on the next open
+        }
+        pending.reset();
+        durable = appended;
+        length = written;
+    }
+
+    // Wait until every change logged so far is on disk; throws if a write failed
+    public synchronized void sync() throws IOException {
+        awaitFlushed();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Wait until the flusher has handled every record appended so far
+    private synchronized void awaitFlushed() throws IOException {
+        long target = appended;
+        while (durable < target) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for journal", e);
+            }
+        }
+    }
+
+    // Why the journal stopped taking changes, or null if it is working
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    // Size of the journal in bytes, including changes not yet on disk
+    public synchronized long length() {
+        return length;
+    }
+
+    // True when the journal holds no changes
+    public synchronized boolean isEmpty() {
+        return length == HEADER_SIZE;
+    }
+
+    // Drop every record - used once the changes are in the CSV file. This
+    // also puts a failed journal back to work.
+    public synchronized void reset() throws IOException {
+        awaitFlushed();
+        channel.truncate(HEADER_SIZE);
+        channel.position(HEADER_SIZE);
+        channel.force(true);
+        length = HEADER_SIZE;
+        written = HEADER_SIZE;
+        failure = null;
+    }
+
+    // Reset only if nothing was logged since the journal had the given length -
+    // used after saving a copy of the teams taken at that point
+    public synchronized boolean resetIfUnchanged(long expectedLength) throws IOException {
+        if (length != expectedLength) {
+            return false;
+        }
+        reset();
+        return true;
+    }
+
+    // Flush outstanding changes and close the file
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException error;
+        synchronized (this) {
+            error = failure;
+        }
+        channel.close();
+        if (error != null) {
+            throw error;
+        }
+    }
+}
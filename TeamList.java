@@ -1,196 +1,538 @@
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
+// Teams, indexed by number and category and ranked by overall score.
+//
+// Thread safety: any number of threads may use a TeamList at once.
+// - Writers (addTeam, replaceTeam, removeTeam, updateScores) take the write
+//   lock of a StampedLock, so changes are applied one at a time, and bump the
+//   version.
+// - Readers that scan, rank or report (getAllTeams, getTeamsBy..., statistics,
+//   reports, getStore) work on an immutable TeamListSnapshot. The snapshot of
+//   the current version is published through a volatile field, so reading it
+//   takes no lock; the first read after a change builds a new one under the
+//   write lock. That costs O(n / 1024) plus the teams ranked or removed since
+//   the last one: the store copy shares unchanged chunks with the live store
+//   (see TeamStore), and the ranking and sort orders are read out of the list
+//   when the snapshot first needs them, under the read lock. A snapshot read
+//   after the list changed again sorts its own copy instead, once.
+// - Point lookups (findTeamByNumber, containsTeam, size, category counts) read
+//   the live indexes under an optimistic read stamp and retry under the read
+//   lock if a writer got in the way. Name searches read the live search index
+//   under the read lock.
+// Lists returned by readers never change, however the TeamList changes later.
+//
+// Teams keep the order they were added in (the store's slot order), which is
+// the order of getAllTeams, the details table and saved files. Replacing a
+// team keeps its place; removing one leaves a hole in the store that is
+// closed before the next snapshot copies it, or once holes make up half the
+// slots.
 public class TeamList {
-    private ArrayList<Team> teams;
+    private TeamStore store; // columnar team data, one slot per team
+    private TeamIndex index; // team number -> slot in store
+    private Map<String, IntList> categoryBuckets; // lower-case category -> team numbers
+    private TeamIndex bucketIndex; // team number -> position in its category bucket
+    private Leaderboard leaderboard; // team numbers ranked by overall score
+    private IntList unranked; // added but not yet in the leaderboard
+    private ScoreHistogram histogram; // individual score counts, kept up to date
+    private TeamSearchIndex searchIndex; // words of team and university names -> team numbers
+    private TeamOrder numberOrder; // team numbers in number order, for views and queries
+    private TeamOrder nameOrder; // team numbers by team name, then number
+    
+    private final StampedLock lock = new StampedLock();
+    private long version; // bumped by every change (guarded by the write lock)
+    private volatile TeamListSnapshot snapshot; // null once a change made it stale
     
     public TeamList() {
-        teams = new ArrayList<>();
+        store = new TeamStore();
+        index = new TeamIndex();
+        categoryBuckets = new HashMap<>();
+        bucketIndex = new TeamIndex();
+        leaderboard = new Leaderboard();
+        unranked = new IntList();
+        histogram = new ScoreHistogram();
+        searchIndex = new TeamSearchIndex(this::namesOf);
+        numberOrder = TeamOrder.byTeamNumber();
+        nameOrder = TeamOrder.byTeamName(this::compareNames);
     }
     
-    // Add a team
+    // Build a list over an already-populated store (e.g. one read from a snapshot)
+    public TeamList(TeamStore store) {
+        this();
+        this.store = store;
+        store.compact();
+        int size = store.size();
+        index = new TeamIndex(size);
+        bucketIndex = new TeamIndex(size);
+        unranked = new IntList(size);
+        
+        IntList[] bucketsByCode = new IntList[store.getCategoryCodeCount()];
+        for (int code = 0; code < bucketsByCode.length; code++) {
+            bucketsByCode[code] = categoryBuckets.computeIfAbsent(categoryKey(store.getCategoryName(code)), k -> new IntList());
+        }
+        
+        for (int slot = 0; slot < size; slot++) {
+            int teamNumber = store.getTeamNumber(slot);
+            if (index.containsKey(teamNumber)) {
+                throw new IllegalArgumentException("Duplicate team number: " + teamNumber);
+            }
+            index.put(teamNumber, slot);
+            
+            IntList bucket = bucketsByCode[store.getCategoryCode(slot)];
+            bucketIndex.put(teamNumber, bucket.size());
+            bucket.add(teamNumber);
+            unranked.add(teamNumber);
+            histogram.add(store, slot);
+            searchIndex.add(teamNumber, store.getTeamName(slot), store.getUniversityName(slot));
+            numberOrder.add(teamNumber, null);
+            nameOrder.add(teamNumber, store.getTeamName(slot));
+        }
+        categoryBuckets.values().removeIf(IntList::isEmpty);
+    }
+    
+    // Bucket key for a category (categories match case-insensitively)
+    static String categoryKey(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+    
+    // Add a team (team numbers must be unique). The team's data is copied
+    // into the store - later changes must go through this class.
     public void addTeam(Team team) {
-        teams.add(team);
+        long stamp = lock.writeLock();
+        try {
+            if (index.containsKey(team.getTeamNumber())) {
+                throw new IllegalArgumentException("Duplicate team number: " + team.getTeamNumber());
+            }
+            insert(team);
+            changed();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
     
-    // Get all teams
-    public ArrayList<Team> getAllTeams() {
-        return teams;
+    // Replace the team with the same number by this one, in its place, or add
+    // it if there is none. The team is checked before anything changes and the
+    // swap is one write, so a rejected team leaves the old one in place and
+    // readers never see the number missing. Returns whether a team was replaced.
+    public boolean replaceTeam(Team team) {
+        long stamp = lock.writeLock();
+        try {
+            store.check(team);
+            int slot = index.get(team.getTeamNumber());
+            if (slot < 0) {
+                insert(team);
+            } else {
+                unindex(team.getTeamNumber(), slot);
+                store.set(slot, team);
+                indexSlot(team, slot);
+            }
+            changed();
+            return slot >= 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
     
-    // Find team by number
-    public Team findTeamByNumber(int teamNumber) {
-        for (Team team : teams) {
-            if (team.getTeamNumber() == teamNumber) {
-                return team;
+    // Add a new team to the store and every index (write lock held, number
+    // not registered)
+    private void insert(Team team) {
+        int slot = store.add(team);
+        index.put(team.getTeamNumber(), slot);
+        indexSlot(team, slot);
+    }
+    
+    // Index the team just written to a slot (everything but the number index)
+    private void indexSlot(Team team, int slot) {
+        int teamNumber = team.getTeamNumber();
+        histogram.add(store, slot);
+        searchIndex.add(teamNumber, team.getTeamName(), team.getUniversityName());
+        numberOrder.add(teamNumber, null);
+        nameOrder.add(teamNumber, team.getTeamName());
+        
+        IntList bucket = categoryBuckets.computeIfAbsent(categoryKey(team.getCategory()), k -> new IntList());
+        bucketIndex.put(teamNumber, bucket.size());
+        bucket.add(teamNumber);
+        
+        // Ranking is deferred so a bulk load ranks everything in one pass
+        unranked.add(teamNumber);
+    }
+    
+    // Called with the write lock held after every change
+    private void changed() {
+        version++;
+        snapshot = null;
+    }
+    
+    // Get the leaderboard, first ranking any teams added since the last query
+    // (needs the write lock)
+    private Leaderboard ranked() {
+        int count = unranked.size();
+        if (count == 0) {
+            return leaderboard;
+        }
+        if (count * 16 < leaderboard.size()) {
+            for (int i = 0; i < count; i++) {
+                int teamNumber = unranked.get(i);
+                leaderboard.add(teamNumber, store.getOverallScore(index.get(teamNumber)));
+            }
+        } else {
+            int[] numbers = unranked.toArray();
+            double[] scores = new double[count];
+            for (int i = 0; i < count; i++) {
+                scores[i] = store.getOverallScore(index.get(numbers[i]));
+            }
+            leaderboard.addAll(numbers, scores, count);
+        }
+        unranked.clear();
+        return leaderboard;
+    }
+    
+    // Get an immutable snapshot of the current teams. Lock-free unless the
+    // list changed since the last snapshot was taken.
+    public TeamListSnapshot snapshot() {
+        TeamListSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (snapshot == null) {
+                compact();
+                ranked();
+                snapshot = new TeamListSnapshot(this, version, store.copy(), histogram.copy());
+            }
+            return snapshot;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    // Ranks [from, to) of the ranking as slots of the snapshot taken at a
+    // version, or null if the list changed since (the snapshot then ranks its
+    // own copy). Runs under the read lock: snapshot() compacted the store and
+    // ranked every team, so the live slots are the snapshot's.
+    int[] rankedSlots(long snapshotVersion, int from, int to) {
+        long stamp = lock.readLock();
+        try {
+            if (version != snapshotVersion) {
+                return null;
+            }
+            int[] slots = leaderboard.getRange(from, to);
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = index.get(slots[i]);
             }
+            return slots;
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return null;
     }
     
-    // Remove team
+    // A kept order for the snapshot taken at a version, or null if the list
+    // changed since
+    TeamOrder.View orderView(long snapshotVersion, boolean byName) {
+        long stamp = lock.readLock();
+        try {
+            if (version != snapshotVersion) {
+                return null;
+            }
+            return (byName ? nameOrder : numberOrder).view(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    // Run a short read of the live data: optimistically first, then under the
+    // read lock if a writer changed anything meanwhile
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // torn read while a writer was busy - retry under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    // Get all teams (immutable snapshot, Team objects are built as they are read)
+    public List<Team> getAllTeams() {
+        return snapshot().getAllTeams();
+    }
+    
+    // Get a point-in-time copy of the columnar store - read it, never modify it
+    public TeamStore getStore() {
+        return snapshot().getStore();
+    }
+    
+    // Find team by number
+    public Team findTeamByNumber(int teamNumber) {
+        return read(() -> {
+            int slot = index.get(teamNumber);
+            return slot < 0 ? null : store.get(slot);
+        });
+    }
+    
+    // Check if a team number is registered
+    public boolean containsTeam(int teamNumber) {
+        return read(() -> index.containsKey(teamNumber));
+    }
+    
+    // Remove team - the other teams keep their slots and order
     public boolean removeTeam(int teamNumber) {
-        Team team = findTeamByNumber(teamNumber);
-        if (team != null) {
-            teams.remove(team);
+        long stamp = lock.writeLock();
+        try {
+            if (!delete(teamNumber)) {
+                return false;
+            }
+            changed();
             return true;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return false;
     }
     
-    // Get team with highest score
-    public Team getHighestScoringTeam() {
-        if (teams.isEmpty()) return null;
+    // Drop a team from the store and every index (write lock held); returns
+    // false if there is no such team
+    private boolean delete(int teamNumber) {
+        int slot = index.get(teamNumber);
+        if (slot < 0) {
+            return false;
+        }
+        unindex(teamNumber, slot);
+        index.remove(teamNumber);
+        store.remove(slot);
+        if (store.getHoleCount() * 2 > store.size()) {
+            compact();
+        }
+        return true;
+    }
+    
+    // Close the store's holes and re-point the numbers of the teams that moved
+    // (write lock held)
+    private void compact() {
+        for (int slot = store.compact(); slot < store.size(); slot++) {
+            index.put(store.getTeamNumber(slot), slot);
+        }
+    }
+    
+    // Drop the team in a slot from every index but the number index (write
+    // lock held)
+    private void unindex(int teamNumber, int slot) {
+        Leaderboard board = ranked();
+        String key = categoryKey(store.getCategory(slot));
+        IntList bucket = categoryBuckets.get(key);
+        int position = bucketIndex.remove(teamNumber);
+        int lastNumber = bucket.removeLast();
+        if (position != bucket.size()) {
+            bucket.set(position, lastNumber);
+            bucketIndex.put(lastNumber, position);
+        }
+        if (bucket.isEmpty()) {
+            categoryBuckets.remove(key);
+        }
         
-        Team highest = teams.get(0);
-        for (Team team : teams) {
-            if (team.getOverallScore() > highest.getOverallScore()) {
-                highest = team;
+        histogram.remove(store, slot);
+        searchIndex.remove(teamNumber, store.getTeamName(slot), store.getUniversityName(slot));
+        numberOrder.remove(teamNumber);
+        nameOrder.remove(teamNumber);
+        board.remove(teamNumber);
+    }
+    
+    // Update a team's scores and re-rank it
+    public boolean updateScores(int teamNumber, int[] scores) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = index.get(teamNumber);
+            if (slot < 0) {
+                return false;
             }
+            // Validate first, so rejected scores leave the histogram untouched
+            TeamStore.checkScores(scores);
+            histogram.remove(store, slot);
+            store.setScores(slot, scores);
+            histogram.add(store, slot);
+            ranked().rerank(teamNumber, store.getOverallScore(slot));
+            changed();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return highest;
+    }
+    
+    // Find teams by part of their team or university name, best matches first
+    // (see TeamSearchIndex). Returns at most limit teams.
+    public List<Team> searchTeams(String query, int limit) {
+        long stamp = lock.readLock();
+        try {
+            if (searchIndex.needsSort()) {
+                long writeStamp = lock.tryConvertToWriteLock(stamp);
+                if (writeStamp == 0) {
+                    lock.unlockRead(stamp);
+                    writeStamp = lock.writeLock();
+                }
+                stamp = writeStamp;
+                searchIndex.sortPending();
+            }
+            int[] numbers = searchIndex.search(query, limit);
+            List<Team> teams = new ArrayList<>(numbers.length);
+            for (int teamNumber : numbers) {
+                teams.add(store.get(index.get(teamNumber)));
+            }
+            return Collections.unmodifiableList(teams);
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+    
+    // Team and university name of a registered team (lock held by the caller)
+    private String namesOf(int teamNumber) {
+        int slot = index.get(teamNumber);
+        return store.getTeamName(slot) + " " + store.getUniversityName(slot);
+    }
+    
+    // Order two registered teams by name, then number (lock held by the caller)
+    private int compareNames(int a, int b) {
+        int c = store.getTeamName(index.get(a)).compareTo(store.getTeamName(index.get(b)));
+        return c != 0 ? c : Integer.compare(a, b);
+    }
+    
+    // Get a single-pass statistics snapshot of the current teams
+    public TeamStatistics getStatistics() {
+        return snapshot().getStatistics();
+    }
+    
+    // Get team with highest score (ties go to the lower team number)
+    public Team getHighestScoringTeam() {
+        return snapshot().getHighestScoringTeam();
+    }
+    
+    // Get all teams ranked by overall score, highest first - O(n), no sorting
+    public List<Team> getTeamsByOverallScore() {
+        return snapshot().getTeamsByOverallScore();
+    }
+    
+    // Get one category's teams ranked by overall score, highest first
+    public List<Team> getTeamsByOverallScore(String category) {
+        return snapshot().getTeamsByOverallScore(category);
+    }
+    
+    // Get the K highest scoring teams
+    public List<Team> getTopTeams(int k) {
+        return snapshot().getTopTeams(k);
+    }
+    
+    // Get teams with an overall score within [minScore, maxScore], highest first
+    public List<Team> getTeamsWithScoreBetween(double minScore, double maxScore) {
+        return snapshot().getTeamsWithScoreBetween(minScore, maxScore);
+    }
+    
+    // Get a team's 1-based leaderboard position, or 0 if not found
+    public int getRank(int teamNumber) {
+        return snapshot().getRank(teamNumber);
     }
     
     // Get average overall score
     public double getAverageOverallScore() {
-        if (teams.isEmpty()) return 0;
-        
-        double sum = 0;
-        for (Team team : teams) {
-            sum += team.getOverallScore();
-        }
-        return sum / teams.size();
+        return getStatistics().getAverageOverallScore();
     }
     
     // Get minimum overall score
     public double getMinimumOverallScore() {
-        if (teams.isEmpty()) return 0;
-        
-        double min = teams.get(0).getOverallScore();
-        for (Team team : teams) {
-            if (team.getOverallScore() < min) {
-                min = team.getOverallScore();
-            }
-        }
-        return min;
+        return getStatistics().getMinimumOverallScore();
     }
     
     // Get maximum overall score
     public double getMaximumOverallScore() {
-        if (teams.isEmpty()) return 0;
-        
-        double max = teams.get(0).getOverallScore();
-        for (Team team : teams) {
-            if (team.getOverallScore() > max) {
-                max = team.getOverallScore();
-            }
-        }
-        return max;
+        return getStatistics().getMaximumOverallScore();
     }
     
     // Get frequency report of individual scores
     public Map<Integer, Integer> getScoreFrequency() {
-        Map<Integer, Integer> frequency = new HashMap<>();
-        
-        for (Team team : teams) {
-            int[] scores = team.getScoreArray();
-            for (int score : scores) {
-                frequency.put(score, frequency.getOrDefault(score, 0) + 1);
-            }
-        }
-        
-        return frequency;
+        return snapshot().getScoreFrequency();
     }
     
-    // Get teams by category
-    public ArrayList<Team> getTeamsByCategory(String category) {
-        ArrayList<Team> filtered = new ArrayList<>();
-        for (Team team : teams) {
-            if (team.getCategory().equalsIgnoreCase(category)) {
-                filtered.add(team);
-            }
-        }
-        return filtered;
+    // Get the individual score counts (overall, per category and per position)
+    public ScoreHistogram getScoreHistogram() {
+        return snapshot().getScoreHistogram();
+    }
+    
+    // Get one page of teams in a sort order, for every team (category null) or
+    // one category, starting at a position (see TeamListSnapshot.query)
+    public TeamPage query(String category, TeamListSnapshot.SortKey sortKey, int offset, int limit) {
+        return snapshot().query(category, sortKey, offset, limit);
+    }
+    
+    // Get the page after the one a cursor came from (null for the first page)
+    public TeamPage query(String category, TeamListSnapshot.SortKey sortKey, String cursor, int limit) {
+        return snapshot().query(category, sortKey, cursor, limit);
+    }
+    
+    // Get teams by category (immutable snapshot)
+    public List<Team> getTeamsByCategory(String category) {
+        return snapshot().getTeamsByCategory(category);
+    }
+    
+    // Get number of teams in one category
+    public int getCategoryCount(String category) {
+        return read(() -> {
+            IntList bucket = categoryBuckets.get(categoryKey(category));
+            return bucket == null ? 0 : bucket.size();
+        });
     }
     
     // Get count by category
     public Map<String, Integer> getCategoryCount() {
-        Map<String, Integer> count = new HashMap<>();
-        for (Team team : teams) {
-            String category = team.getCategory();
-            count.put(category, count.getOrDefault(category, 0) + 1);
+        long stamp = lock.readLock();
+        try {
+            Map<String, Integer> count = new HashMap<>();
+            for (IntList bucket : categoryBuckets.values()) {
+                count.put(store.getCategory(index.get(bucket.get(0))), bucket.size());
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return count;
     }
     
     // Get full details table
     public String getFullDetailsTable() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=".repeat(80)).append("\n");
-        sb.append("HACKATHON TEAMS - FULL DETAILS\n");
-        sb.append("=".repeat(80)).append("\n\n");
-        
-        for (Team team : teams) {
-            sb.append(team.getFullDetails()).append("\n");
-            sb.append("-".repeat(80)).append("\n");
-        }
-        
-        return sb.toString();
+        return snapshot().getFullDetailsTable();
+    }
+    
+    // Write full details table one team at a time, so memory use stays flat
+    public void writeFullDetailsTable(Writer out) throws IOException {
+        snapshot().writeFullDetailsTable(out);
     }
     
     // Generate complete report
     public String generateReport() {
-        StringBuilder report = new StringBuilder();
-        report.append("=".repeat(80)).append("\n");
-        report.append("HACKATHON MANAGEMENT SYSTEM - FINAL REPORT\n");
-        report.append("=".repeat(80)).append("\n\n");
-        
-        // Full details table
-        report.append(getFullDetailsTable()).append("\n");
-        
-        // Highest scoring team
-        Team highest = getHighestScoringTeam();
-        if (highest != null) {
-            report.append("HIGHEST SCORING TEAM:\n");
-            report.append(highest.getFullDetails()).append("\n\n");
-        }
-        
-        // Summary statistics
-        report.append("SUMMARY STATISTICS:\n");
-        report.append("-".repeat(80)).append("\n");
-        report.append(String.format("Total Teams: %d\n", teams.size()));
-        report.append(String.format("Average Overall Score: %.2f\n", getAverageOverallScore()));
-        report.append(String.format("Minimum Overall Score: %.2f\n", getMinimumOverallScore()));
-        report.append(String.format("Maximum Overall Score: %.2f\n\n", getMaximumOverallScore()));
-        
-        // Category breakdown
-        report.append("TEAMS BY CATEGORY:\n");
-        report.append("-".repeat(80)).append("\n");
-        Map<String, Integer> categoryCount = getCategoryCount();
-        for (Map.Entry<String, Integer> entry : categoryCount.entrySet()) {
-            report.append(String.format("%s: %d teams\n", entry.getKey(), entry.getValue()));
-        }
-        report.append("\n");
-        
-        // Frequency report
-        report.append("INDIVIDUAL SCORE FREQUENCY:\n");
-        report.append("-".repeat(80)).append("\n");
-        Map<Integer, Integer> frequency = getScoreFrequency();
-        for (int score = 0; score <= 5; score++) {
-            int count = frequency.getOrDefault(score, 0);
-            report.append(String.format("Score %d: %d times\n", score, count));
-        }
-        
-        report.append("\n").append("=".repeat(80)).append("\n");
-        report.append("END OF REPORT\n");
-        report.append("=".repeat(80)).append("\n");
-        
-        return report.toString();
+        return snapshot().generateReport();
+    }
+    
+    // Write complete report section by section, without building it in memory
+    public void writeReport(Writer out) throws IOException {
+        snapshot().writeReport(out);
     }
     
     // Get size
     public int size() {
-        return teams.size();
+        return read(() -> index.size());
     }
 }
@@ -0,0 +1,544 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Immutable point-in-time view of a TeamList.
+// It holds a private copy of the store as it was when the snapshot was taken,
+// so any number of threads can read it without locking while the list keeps
+// changing. Derived data (the ranking, sort orders, statistics, category
+// lists, the number index) is worked out on first use and then reused. The
+// ranking and sort orders come from the list while it hasn't changed since;
+// after that the snapshot sorts its own copy.
+public class TeamListSnapshot {
+    private static final String DOUBLE_RULE = "=".repeat(80) + "\n";
+    private static final String SINGLE_RULE = "-".repeat(80) + "\n";
+
+    // Orders a query can return teams in
+    public enum SortKey {
+        TEAM_NUMBER,
+        TEAM_NAME,   // then team number
+        OVERALL_SCORE // highest first, then team number
+    }
+
+    private final long version;
+    private final TeamStore store;   // never modified after construction
+    private final TeamList source; // the list the snapshot was taken from
+    private final ScoreHistogram histogram; // never modified after construction
+
+    // Lazily derived - racing threads may both compute a value, which is harmless
+    private volatile int[] rankedSlots; // slots in leaderboard order
+    private volatile TeamStatistics statistics;
+    private volatile TeamIndex index;
+    private final Map<String, int[]> categorySlots = new ConcurrentHashMap<>();
+    private final Map<String, int[]> sortedSlots = new ConcurrentHashMap<>();
+
+    TeamListSnapshot(TeamList source, long version, TeamStore store, ScoreHistogram histogram) {
+        this.source = source;
+        this.version = version;
+        this.store = store;
+        this.histogram = histogram;
+    }
+
+    // Version of the list this snapshot was taken from (grows with every change)
+    public long getVersion() {
+        return version;
+    }
+
+    // The snapshot's copy of the store - read it, never modify it
+    public TeamStore getStore() {
+        return store;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public List<Team> getAllTeams() {
+        return new SlotView();
+    }
+
+    public Team findTeamByNumber(int teamNumber) {
+        int slot = index().get(teamNumber);
+        return slot < 0 ? null : store.get(slot);
+    }
+
+    // Slots in leaderboard order: the list's ranking if it hasn't changed
+    // since, otherwise the snapshot's own teams sorted by score, then number
+    private int[] rankedSlots() {
+        int[] result = rankedSlots;
+        if (result == null) {
+            result = source.rankedSlots(version, 0, store.size());
+            if (result == null) {
+                result = new int[store.size()];
+                long[] keys = new long[2 * result.length];
+                for (int slot = 0; slot < result.length; slot++) {
+                    result[slot] = slot;
+                    // Highest score first, ordered as Double.compare orders them
+                    long bits = Double.doubleToLongBits(store.getOverallScore(slot));
+                    keys[2 * slot] = ~(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+                    keys[2 * slot + 1] = store.getTeamNumber(slot);
+                }
+                TeamOrder.sort(result, keys, null);
+            }
+            rankedSlots = result;
+        }
+        return result;
+    }
+
+    private TeamIndex index() {
+        TeamIndex result = index;
+        if (result == null) {
+            result = new TeamIndex(store.size());
+            for (int slot = 0; slot < store.size(); slot++) {
+                result.put(store.getTeamNumber(slot), slot);
+            }
+            index = result;
+        }
+        return result;
+    }
+
+    // Which category codes match a category name (case-insensitively)
+    private boolean[] matchingCodes(String category) {
+        String key = TeamList.categoryKey(category);
+        boolean[] matches = new boolean[store.getCategoryCodeCount()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = TeamList.categoryKey(store.getCategoryName(code)).equals(key);
+        }
+        return matches;
+    }
+
+    // Teams in one category, in store order
+    public List<Team> getTeamsByCategory(String category) {
+        int[] slots = categorySlots(category);
+        return slots.length == 0 ? Collections.emptyList() : new SlotArrayView(slots);
+    }
+
+    // Slots of one category in store order (shared - callers must not modify it)
+    private int[] categorySlots(String category) {
+        return categorySlots.computeIfAbsent(TeamList.categoryKey(category), key -> {
+            boolean[] matches = matchingCodes(category);
+            IntList found = new IntList();
+            for (int slot = 0; slot < store.size(); slot++) {
+                if (matches[store.getCategoryCode(slot)]) {
+                    found.add(slot);
+                }
+            }
+            return found.toArray();
+        });
+    }
+
+    // Slot orders for table views, for every team (category null) or one
+    // category. They index into getStore() and are read without building Teams.
+
+    // Slots ordered by team number
+    public int[] getSlotsByTeamNumber(String category) {
+        return getSortedSlots(category, SortKey.TEAM_NUMBER).clone();
+    }
+
+    // Slots ordered by team name (equal names by team number)
+    public int[] getSlotsByTeamName(String category) {
+        return getSortedSlots(category, SortKey.TEAM_NAME).clone();
+    }
+
+    // Slots ranked by overall score, highest first
+    public int[] getSlotsByOverallScore(String category) {
+        return getSortedSlots(category, SortKey.OVERALL_SCORE).clone();
+    }
+
+    // Slots in a sort order, shared rather than copied - callers must not
+    // modify it. Each order is worked out once per snapshot, so switching a
+    // view between orders costs nothing after the first time.
+    public int[] getSortedSlots(String category, SortKey sortKey) {
+        String key = category == null ? sortKey.name() : sortKey.name() + "/" + TeamList.categoryKey(category);
+        int[] slots = sortedSlots.get(key);
+        if (slots == null) {
+            slots = category == null ? allSlots(sortKey) : inCategory(getSortedSlots(null, sortKey), category);
+            sortedSlots.put(key, slots);
+        }
+        return slots;
+    }
+
+    // Every team's slot in a sort order: the ranking, or the list's kept order.
+    // An order the list isn't keeping yet is sorted here and handed back to
+    // the list, which keeps it from then on (unless the list changed since).
+    private int[] allSlots(SortKey sortKey) {
+        if (sortKey == SortKey.OVERALL_SCORE) {
+            return rankedSlots();
+        }
+        boolean byName = sortKey == SortKey.TEAM_NAME;
+        TeamOrder.View view = source.orderView(version, byName);
+        int[] slots = view == null ? null : view.getSlots();
+        if (slots != null) {
+            return slots;
+        }
+
+        slots = new int[store.size()];
+        long[] keys = new long[2 * slots.length];
+        for (int slot = 0; slot < slots.length; slot++) {
+            slots[slot] = slot;
+            if (byName) {
+                keys[2 * slot] = TeamOrder.nameKey(store.getTeamName(slot), 0);
+                keys[2 * slot + 1] = TeamOrder.nameKey(store.getTeamName(slot), 1);
+            } else {
+                keys[2 * slot] = store.getTeamNumber(slot);
+            }
+        }
+        TeamOrder.sort(slots, keys, byName ? (a, b) -> {
+            int c = store.getTeamName(a).compareTo(store.getTeamName(b));
+            return c != 0 ? c : Integer.compare(store.getTeamNumber(a), store.getTeamNumber(b));
+        } : null);
+        if (view != null) {
+            int[] numbers = new int[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                numbers[i] = store.getTeamNumber(slots[i]);
+            }
+            view.handBack(slots, numbers, keys);
+        }
+        return slots;
+    }
+
+    // The slots of an order that are in one category, in the same order
+    private int[] inCategory(int[] order, String category) {
+        boolean[] matches = matchingCodes(category);
+        IntList found = new IntList();
+        for (int slot : order) {
+            if (matches[store.getCategoryCode(slot)]) {
+                found.add(slot);
+            }
+        }
+        return found.toArray();
+    }
+
+    // Query: one page of teams in a sort order, for every team (category null)
+    // or one category. Pages are slices of getSortedSlots, so reading page N
+    // costs the same as page 1.
+
+    // The page starting at a position in the order
+    public TeamPage query(String category, SortKey sortKey, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must be >= 0: " + offset);
+        }
+        int[] order = getSortedSlots(category, sortKey);
+        return page(order, sortKey, Math.min(offset, order.length), limit);
+    }
+
+    // The page after the one a cursor came from (the first page for a null
+    // cursor). Cursors hold the position of the last team on their page, so
+    // paging carries on in the right place across snapshots even if teams were
+    // added or removed in between.
+    public TeamPage query(String category, SortKey sortKey, String cursor, int limit) {
+        int[] order = getSortedSlots(category, sortKey);
+        return page(order, sortKey, cursor == null ? 0 : positionAfter(order, sortKey, cursor), limit);
+    }
+
+    private TeamPage page(int[] order, SortKey sortKey, int from, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be >= 0: " + limit);
+        }
+        int to = (int) Math.min((long) from + limit, order.length);
+        String nextCursor = to < order.length && to > 0 ? cursorFor(sortKey, order[to - 1]) : null;
+        return new TeamPage(new SlotArrayView(Arrays.copyOfRange(order, from, to)), from, order.length, nextCursor);
+    }
+
+    // Cursor for the position just after a team: the sort order and the team's
+    // sort key, URL-safe encoded
+    private String cursorFor(SortKey sortKey, int slot) {
+        String position = sortKey.name() + ":" + store.getTeamNumber(slot);
+        if (sortKey == SortKey.TEAM_NAME) {
+            position += ":" + store.getTeamName(slot);
+        } else if (sortKey == SortKey.OVERALL_SCORE) {
+            position += ":" + Long.toHexString(Double.doubleToLongBits(store.getOverallScore(slot)));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // First position in an order that sorts after a cursor's team
+    private int positionAfter(int[] order, SortKey sortKey, String cursor) {
+        String[] parts;
+        int teamNumber;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            teamNumber = Integer.parseInt(parts[1]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (!parts[0].equals(sortKey.name()) || (sortKey != SortKey.TEAM_NUMBER && parts.length < 3)) {
+            throw new IllegalArgumentException("Cursor is not for " + sortKey + " order: " + cursor);
+        }
+        double score = 0;
+        if (sortKey == SortKey.OVERALL_SCORE) {
+            try {
+                score = Double.longBitsToDouble(Long.parseUnsignedLong(parts[2], 16));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int slot = order[mid];
+            int c;
+            switch (sortKey) {
+                case TEAM_NAME:
+                    c = store.getTeamName(slot).compareTo(parts[2]);
+                    if (c == 0) {
+                        c = Integer.compare(store.getTeamNumber(slot), teamNumber);
+                    }
+                    break;
+                case OVERALL_SCORE:
+                    c = Leaderboard.compare(store.getOverallScore(slot), store.getTeamNumber(slot), score, teamNumber);
+                    break;
+                default:
+                    c = Integer.compare(store.getTeamNumber(slot), teamNumber);
+            }
+            if (c <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // All teams ranked by overall score, highest first
+    public List<Team> getTeamsByOverallScore() {
+        return new SlotArrayView(rankedSlots());
+    }
+
+    // One category's teams ranked by overall score, highest first
+    public List<Team> getTeamsByOverallScore(String category) {
+        return new SlotArrayView(getSortedSlots(category, SortKey.OVERALL_SCORE));
+    }
+
+    public List<Team> getTopTeams(int k) {
+        int count = Math.max(0, Math.min(k, store.size()));
+        return new SlotArrayView(rankedRange(0, count));
+    }
+
+    // Slots [from, to) of the ranking. Until the whole ranking is worked out,
+    // only that range is read from the list (if it hasn't changed since).
+    private int[] rankedRange(int from, int to) {
+        int[] range = rankedSlots == null ? source.rankedSlots(version, from, to) : null;
+        return range != null ? range : Arrays.copyOfRange(rankedSlots(), from, to);
+    }
+
+    // Teams with an overall score within [minScore, maxScore], highest first
+    public List<Team> getTeamsWithScoreBetween(double minScore, double maxScore) {
+        int from = countScoringAbove(maxScore, false);
+        int to = countScoringAbove(minScore, true);
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+        return new SlotArrayView(rankedRange(from, to));
+    }
+
+    // Number of ranked teams scoring above s (or at least s when inclusive)
+    private int countScoringAbove(double s, boolean inclusive) {
+        int[] rankedSlots = rankedSlots();
+        int low = 0;
+        int high = rankedSlots.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int c = Double.compare(store.getOverallScore(rankedSlots[mid]), s);
+            if (c > 0 || (inclusive && c == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // A team's 1-based position in the ranking, or 0 if not found
+    public int getRank(int teamNumber) {
+        int slot = index().get(teamNumber);
+        if (slot < 0) {
+            return 0;
+        }
+        double score = store.getOverallScore(slot);
+        int[] rankedSlots = rankedSlots();
+        int low = 0;
+        int high = rankedSlots.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int other = rankedSlots[mid];
+            if (Leaderboard.compare(store.getOverallScore(other), store.getTeamNumber(other), score, teamNumber) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low + 1;
+    }
+
+    // Highest scoring team. Ties go to the team that comes first in the list
+    // (the lowest slot), as in the report - not to the leaderboard's first.
+    public Team getHighestScoringTeam() {
+        int[] rankedSlots = rankedSlots();
+        if (rankedSlots.length == 0) {
+            return null;
+        }
+        int highest = rankedSlots[0];
+        double score = store.getOverallScore(highest);
+        for (int i = 1; i < rankedSlots.length && store.getOverallScore(rankedSlots[i]) == score; i++) {
+            highest = Math.min(highest, rankedSlots[i]);
+        }
+        return store.get(highest);
+    }
+
+    public TeamStatistics getStatistics() {
+        TeamStatistics result = statistics;
+        if (result == null) {
+            result = TeamStatistics.compute(store, histogram);
+            statistics = result;
+        }
+        return result;
+    }
+
+    // Frequency of individual scores (only scores that were awarded)
+    public Map<Integer, Integer> getScoreFrequency() {
+        Map<Integer, Integer> frequency = new HashMap<>();
+        for (int score = 0; score <= TeamStatistics.MAX_SCORE; score++) {
+            if (histogram.getCount(score) > 0) {
+                frequency.put(score, histogram.getCount(score));
+            }
+        }
+        return frequency;
+    }
+
+    // Individual score counts - overall, per category and per score position
+    public ScoreHistogram getScoreHistogram() {
+        return histogram;
+    }
+
+    // Read-only view over every slot of the store
+    private class SlotView extends AbstractList<Team> implements RandomAccess {
+        @Override
+        public Team get(int position) {
+            return store.get(position);
+        }
+
+        @Override
+        public int size() {
+            return store.size();
+        }
+    }
+
+    // Read-only view over a fixed array of slots (e.g. a ranking)
+    private class SlotArrayView extends AbstractList<Team> implements RandomAccess {
+        private final int[] slots;
+
+        SlotArrayView(int[] slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public Team get(int position) {
+            return store.get(slots[position]);
+        }
+
+        @Override
+        public int size() {
+            return slots.length;
+        }
+    }
+
+    // Get full details table
+    public String getFullDetailsTable() {
+        StringWriter out = new StringWriter();
+        try {
+            writeFullDetailsTable(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringWriter never throws
+        }
+        return out.toString();
+    }
+
+    // Write full details table one team at a time, so memory use stays flat
+    public void writeFullDetailsTable(Writer out) throws IOException {
+        out.write(DOUBLE_RULE);
+        out.write("HACKATHON TEAMS - FULL DETAILS\n");
+        out.write(DOUBLE_RULE);
+        out.write("\n");
+
+        for (int slot = 0; slot < store.size(); slot++) {
+            out.write(store.get(slot).getFullDetails());
+            out.write("\n");
+            out.write(SINGLE_RULE);
+        }
+    }
+
+    // Generate complete report
+    public String generateReport() {
+        StringWriter out = new StringWriter();
+        try {
+            writeReport(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringWriter never throws
+        }
+        return out.toString();
+    }
+
+    // Write complete report section by section, without building it in memory
+    public void writeReport(Writer out) throws IOException {
+        out.write(DOUBLE_RULE);
+        out.write("HACKATHON MANAGEMENT SYSTEM - FINAL REPORT\n");
+        out.write(DOUBLE_RULE);
+        out.write("\n");
+
+        // Full details table
+        writeFullDetailsTable(out);
+        out.write("\n");
+
+        TeamStatistics stats = getStatistics();
+
+        // Highest scoring team
+        Team highest = stats.getHighestScoringTeam();
+        if (highest != null) {
+            out.write("HIGHEST SCORING TEAM:\n");
+            out.write(highest.getFullDetails());
+            out.write("\n\n");
+        }
+
+        // Summary statistics
+        out.write("SUMMARY STATISTICS:\n");
+        out.write(SINGLE_RULE);
+        out.write(String.format("Total Teams: %d\n", stats.getTeamCount()));
+        out.write(String.format("Average Overall Score: %.2f\n", stats.getAverageOverallScore()));
+        out.write(String.format("Minimum Overall Score: %.2f\n", stats.getMinimumOverallScore()));
+        out.write(String.format("Maximum Overall Score: %.2f\n\n", stats.getMaximumOverallScore()));
+
+        // Category breakdown
+        out.write("TEAMS BY CATEGORY:\n");
+        out.write(SINGLE_RULE);
+        for (Map.Entry<String, Integer> entry : stats.getCategoryCount().entrySet()) {
+            out.write(String.format("%s: %d teams\n", entry.getKey(), entry.getValue()));
+        }
+        out.write("\n");
+
+        // Frequency report
+        out.write("INDIVIDUAL SCORE FREQUENCY:\n");
+        out.write(SINGLE_RULE);
+        for (int score = 0; score <= 5; score++) {
+            out.write(String.format("Score %d: %d times\n", score, stats.getScoreCount(score)));
+        }
+
+        out.write("\n");
+        out.write(DOUBLE_RULE);
+        out.write("END OF REPORT\n");
+        out.write(DOUBLE_RULE);
+    }
+}
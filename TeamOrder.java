@@ -0,0 +1,291 @@
+import java.util.Arrays;
+
+// Team numbers in one sort order (by team number, or by team name then
+// number), kept up to date as teams come and go so the table views and
+// queries never sort the whole list again.
+//
+// The first snapshot to read an order sorts its own teams and hands the
+// result back (see View); from then on the order is kept. Changes are queued
+// and merged in when the next snapshot is taken: the queued teams are sorted
+// among themselves and merged with the current order in one pass, so an edit
+// costs an O(n) merge instead of an O(n log n) sort. Score changes don't
+// touch either order, and until an order is kept (e.g. while loading)
+// changes cost nothing.
+//
+// Sorting compares a collation key per team (two longs, see nameKey) worked
+// out once when the team is added, and only looks at the teams themselves
+// when two keys are equal.
+//
+// Thread safe (TeamList changes it under its write lock, snapshots read it
+// under the read lock and hand orders back without it). Arrays handed out are never modified afterwards.
+public class TeamOrder {
+    private static final int KEY_CHARS = 9; // per long, 7 bits each
+
+    // Orders two teams whose keys are equal
+    public interface TieBreak {
+        int compare(int a, int b);
+    }
+
+    private final TieBreak tieBreak; // by name; null for the team number order
+    private boolean kept; // whether a snapshot handed the order back yet
+    private int[] numbers = new int[0]; // merged order
+    private long[] keys = new long[0]; // keys[2i], keys[2i + 1] are the key of numbers[i]
+    private final IntList added = new IntList(); // queued team numbers
+    private long[] addedKeys = new long[32];
+    private final TeamIndex addedPositions = new TeamIndex(); // queued team number -> position in added
+    private final TeamIndex removed = new TeamIndex(); // team numbers to drop from the merged order
+    private int[] slots; // the order as store slots, until teams are added or removed
+    private int changes; // adds and removes so far
+
+    private TeamOrder(TieBreak tieBreak) {
+        this.tieBreak = tieBreak;
+    }
+
+    public static TeamOrder byTeamNumber() {
+        return new TeamOrder(null);
+    }
+
+    // Team names are compared by key, then by the tie break (which must order
+    // registered teams by name, then number)
+    public static TeamOrder byTeamName(TieBreak tieBreak) {
+        return new TeamOrder(tieBreak);
+    }
+
+    // Collation key for a team name, in two parts: its first 18 characters,
+    // 7 bits each, nine to a long (part 0, then part 1), so that comparing keys
+    // orders names the way String.compareTo does. Equal keys only mean the
+    // names start alike. A character outside 0-126 ends the key, as its code
+    // doesn't fit.
+    public static long nameKey(String name, int part) {
+        int from = part * KEY_CHARS;
+        for (int i = 0; i < from && i < name.length(); i++) {
+            if (name.charAt(i) >= 127) {
+                return 0; // the key ended in an earlier part
+            }
+        }
+        long key = 0;
+        int end = Math.min(name.length(), from + KEY_CHARS);
+        int i = from;
+        while (i < end) {
+            char c = name.charAt(i++);
+            if (c >= 127) {
+                key = (key << 7) | 127;
+                break;
+            }
+            key = (key << 7) | c;
+        }
+        return key << (7 * (from + KEY_CHARS - i));
+    }
+
+    // Key of a team in this order (the first of its two longs, or the second)
+    private long keyOf(int teamNumber, String teamName, int part) {
+        if (tieBreak != null) {
+            return nameKey(teamName, part);
+        }
+        return part == 0 ? teamNumber : 0;
+    }
+
+    public synchronized void add(int teamNumber, String teamName) {
+        changed();
+        if (!kept) {
+            return;
+        }
+        int position = added.size();
+        added.add(teamNumber);
+        if (2 * position == addedKeys.length) {
+            addedKeys = Arrays.copyOf(addedKeys, position << 2);
+        }
+        addedKeys[2 * position] = keyOf(teamNumber, teamName, 0);
+        addedKeys[2 * position + 1] = keyOf(teamNumber, teamName, 1);
+        addedPositions.put(teamNumber, position);
+    }
+
+    public synchronized void remove(int teamNumber) {
+        changed();
+        if (!kept) {
+            return;
+        }
+        int position = addedPositions.remove(teamNumber);
+        if (position < 0) {
+            removed.put(teamNumber, 0);
+            return;
+        }
+        int last = added.size() - 1;
+        int lastNumber = added.removeLast();
+        if (position != last) {
+            added.set(position, lastNumber);
+            addedKeys[2 * position] = addedKeys[2 * last];
+            addedKeys[2 * position + 1] = addedKeys[2 * last + 1];
+            addedPositions.put(lastNumber, position);
+        }
+    }
+
+    private void changed() {
+        changes++;
+        slots = null;
+    }
+
+    // The order for a snapshot: as slots of the store (mapped through its
+    // team number index) once the order is kept, otherwise nothing yet (call
+    // with the list's read or write lock held)
+    public synchronized View view(TeamIndex index) {
+        if (kept && slots == null) {
+            int[] order = merged();
+            slots = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                slots[i] = index.get(order[i]);
+            }
+        }
+        return new View(this, changes, kept ? slots : null);
+    }
+
+    // Keep an order a snapshot sorted, unless teams were added or removed
+    // since the snapshot was taken (then the next snapshot sorts again)
+    private synchronized void handBack(int changesSeen, int[] sortedSlots, int[] sortedNumbers, long[] sortedKeys) {
+        if (changesSeen == changes && !kept) {
+            kept = true;
+            numbers = sortedNumbers;
+            keys = sortedKeys;
+            slots = sortedSlots;
+        }
+    }
+
+    // The order, after merging in the queued changes
+    private int[] merged() {
+        int count = added.size();
+        int dropped = removed.size();
+        if (count == 0 && dropped == 0) {
+            return numbers;
+        }
+        int[] addedNumbers = added.toArray();
+        long[] sortedKeys = Arrays.copyOf(addedKeys, 2 * count);
+        sort(addedNumbers, sortedKeys, tieBreak);
+
+        int size = numbers.length - dropped + count;
+        int[] mergedNumbers = new int[size];
+        long[] mergedKeys = new long[2 * size];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < size; k++) {
+            while (dropped > 0 && i < numbers.length && removed.containsKey(numbers[i])) {
+                i++;
+            }
+            if (j == count || (i < numbers.length
+                    && compare(keys, numbers, i, sortedKeys, addedNumbers, j, tieBreak) <= 0)) {
+                mergedNumbers[k] = numbers[i];
+                copyKey(keys, i++, mergedKeys, k);
+            } else {
+                mergedNumbers[k] = addedNumbers[j];
+                copyKey(sortedKeys, j++, mergedKeys, k);
+            }
+        }
+        numbers = mergedNumbers;
+        keys = mergedKeys;
+        added.clear();
+        addedPositions.clear();
+        removed.clear();
+        return numbers;
+    }
+
+    // An order as handed to one snapshot
+    public static class View {
+        private final TeamOrder order;
+        private final int changes;
+        private final int[] slots;
+
+        private View(TeamOrder order, int changes, int[] slots) {
+            this.order = order;
+            this.changes = changes;
+            this.slots = slots;
+        }
+
+        // The snapshot's slots in this order (shared - callers must not
+        // modify it), or null if the snapshot has to sort them itself
+        public int[] getSlots() {
+            return slots;
+        }
+
+        // Hand back the order the snapshot sorted: its slots, their team
+        // numbers and the keys they were sorted by, as sort left them
+        public void handBack(int[] sortedSlots, int[] sortedNumbers, long[] sortedKeys) {
+            order.handBack(changes, sortedSlots, sortedNumbers, sortedKeys);
+        }
+    }
+
+    // Compare entry i of (idsA, keysA) with entry j of (idsB, keysB)
+    private static int compare(long[] keysA, int[] idsA, int i, long[] keysB, int[] idsB, int j, TieBreak tieBreak) {
+        int c = Long.compare(keysA[2 * i], keysB[2 * j]);
+        if (c == 0) {
+            c = Long.compare(keysA[2 * i + 1], keysB[2 * j + 1]);
+        }
+        return c != 0 || tieBreak == null ? c : tieBreak.compare(idsA[i], idsB[j]);
+    }
+
+    private static void copyKey(long[] from, int i, long[] to, int j) {
+        to[2 * j] = from[2 * i];
+        to[2 * j + 1] = from[2 * i + 1];
+    }
+
+    // Sort ids by key, then by the tie break (keys[2i], keys[2i + 1] are the
+    // key of ids[i]; both arrays are reordered): insertion-sorted runs, then
+    // bottom-up merges
+    public static void sort(int[] ids, long[] keys, TieBreak tieBreak) {
+        int n = ids.length;
+        final int run = 32;
+        int[] idHolder = new int[1];
+        long[] keyHolder = new long[2];
+        for (int start = 0; start < n; start += run) {
+            int end = Math.min(start + run, n);
+            for (int i = start + 1; i < end; i++) {
+                idHolder[0] = ids[i];
+                copyKey(keys, i, keyHolder, 0);
+                int j = i - 1;
+                while (j >= start && compare(keys, ids, j, keyHolder, idHolder, 0, tieBreak) > 0) {
+                    ids[j + 1] = ids[j];
+                    copyKey(keys, j, keys, j + 1);
+                    j--;
+                }
+                ids[j + 1] = idHolder[0];
+                copyKey(keyHolder, 0, keys, j + 1);
+            }
+        }
+
+        int[] fromIds = ids;
+        long[] fromKeys = keys;
+        int[] toIds = new int[n];
+        long[] toKeys = new long[2 * n];
+        for (int width = run; width < n; width <<= 1) {
+            for (int low = 0; low < n; low += width << 1) {
+                int mid = Math.min(low + width, n);
+                int high = Math.min(low + (width << 1), n);
+                int i = low;
+                int j = mid;
+                int k = low;
+                while (i < mid && j < high) {
+                    if (compare(fromKeys, fromIds, j, fromKeys, fromIds, i, tieBreak) < 0) {
+                        toIds[k] = fromIds[j];
+                        copyKey(fromKeys, j++, toKeys, k++);
+                    } else {
+                        toIds[k] = fromIds[i];
+                        copyKey(fromKeys, i++, toKeys, k++);
+                    }
+                }
+                System.arraycopy(fromIds, i, toIds, k, mid - i);
+                System.arraycopy(fromKeys, 2 * i, toKeys, 2 * k, 2 * (mid - i));
+                k += mid - i;
+                System.arraycopy(fromIds, j, toIds, k, high - j);
+                System.arraycopy(fromKeys, 2 * j, toKeys, 2 * k, 2 * (high - j));
+            }
+            int[] swapIds = fromIds;
+            fromIds = toIds;
+            toIds = swapIds;
+            long[] swapKeys = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swapKeys;
+        }
+        if (fromIds != ids) {
+            System.arraycopy(fromIds, 0, ids, 0, n);
+            System.arraycopy(fromKeys, 0, keys, 0, 2 * n);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+import java.util.List;
+
+// One page of a team query (TeamList.query / TeamListSnapshot.query): the
+// teams on the page, where the page starts in the full ordering, how many
+// teams match in all, and the cursor for the page after it.
+public class TeamPage {
+    private final List<Team> teams;
+    private final int offset;
+    private final int total;
+    private final String nextCursor;
+
+    TeamPage(List<Team> teams, int offset, int total, String nextCursor) {
+        this.teams = teams;
+        this.offset = offset;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
+    // Teams on this page, in order (read-only)
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    // Position of the first team on this page among all matching teams
+    public int getOffset() {
+        return offset;
+    }
+
+    // Number of teams matching the query, on every page
+    public int getTotal() {
+        return total;
+    }
+
+    // Cursor for the next page, or null if this is the last one
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
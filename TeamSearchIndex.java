@@ -0,0 +1,607 @@
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+// Word index over team and university names, for finding teams by typing part
+// of a name: whole words, word prefixes ("quan" finds Quantum), substrings
+// ("hack" finds Lifehackers) and words with a typo ("stanfrod" finds Stanford).
+//
+// Every distinct word is a dictionary entry holding the numbers of the teams
+// that use it, in ascending order. Words are matched case- and accent-blind.
+// Numbers are filed under their first three digits ("#424" for 4242, so there
+// are never more than 1,110 of them); a number in a query must start a number
+// in the team's names and only narrows the results, it does not rank them.
+//
+// A query's words must all match. Results are ranked by the weakest word's
+// match - whole word, then prefix, then substring, then typo - and by team
+// number within a rank. Each rank is found by walking the matching words'
+// team lists together in team number order and stops at the limit, so a
+// query costs about the same for a thousand teams as for a million.
+//
+// Typo candidates come from a deletion index: every word is filed under each
+// way of deleting up to one letter (two for longer words) from its first
+// PREFIX_LENGTH letters. Two words within that many edits of each other share
+// at least one such key, so a query looks up its own deletions and checks
+// only the words found there.
+//
+// Removing a team is O(1) per word: it is noted in the word's removed set and
+// the team list is compacted once an eighth of it is removed. A word whose
+// teams are all gone leaves the dictionary but stays in the trigram and
+// deletion indexes (searches skip it) until enough such words pile up for
+// one rebuild of both to pay off.
+//
+// Not thread safe for writers: TeamList adds, removes and sorts under its
+// write lock. search only reads the index (its scratch state is local to the
+// call), so any number of searches may run at once under the read lock.
+public class TeamSearchIndex {
+    // How well a query word matched a name word, best first
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int SUBSTRING = 2;
+    private static final int TYPO = 3;
+    private static final int RANKS = 4;
+
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+    private static final int MIN_TYPO_LENGTH = 4; // shorter words are within one typo of too much
+    private static final int TWO_TYPO_LENGTH = 8;
+    private static final long END = Long.MAX_VALUE;
+    private static final String NUMBER_KEY = "#"; // cannot appear in a word
+    private static final int NUMBER_KEY_DIGITS = 3;
+    private static final int PREFIX_LENGTH = 6; // letters of a word the deletion index looks at
+    private static final int MIN_PURGE = 64; // emptied words worth rebuilding the indexes for
+
+    private final TreeMap<String, Word> words = new TreeMap<>(); // words with teams, sorted for prefix queries
+    private final Map<String, Word> wordsByText = new HashMap<>(); // the same words and emptied ones, for lookups
+    private final Map<String, List<Word>> trigrams = new HashMap<>(); // 3 letters -> words containing them
+    // Deletion index as chains: hash of a deletion -> first entry, then each
+    // entry's word and the next entry with the same hash (-1 ends a chain)
+    private final TeamIndex deletionHeads = new TeamIndex();
+    private final List<Word> deletionWords = new ArrayList<>();
+    private final IntList deletionNext = new IntList();
+    private int emptyWords; // words in wordsByText without teams
+    private final List<Word> unsorted = new ArrayList<>(); // words whose team lists need sorting
+    private final IntFunction<String> namesOf; // team number -> its names, for checking numbers
+    private final List<String> keys = new ArrayList<>(); // scratch for indexedWords
+    private char[] keyBuffer = new char[32];
+
+    private static final class Word {
+        final String text;
+        final IntList teams = new IntList(4); // may still hold removed teams
+        TeamIndex removed; // teams removed but not yet dropped from the list, or null
+        boolean sorted = true;
+
+        Word(String text) {
+            this.text = text;
+        }
+
+        int liveCount() {
+            return teams.size() - (removed == null ? 0 : removed.size());
+        }
+
+        boolean isRemoved(int teamNumber) {
+            return removed != null && removed.containsKey(teamNumber);
+        }
+
+        // Drop the removed teams from the list, keeping its order
+        void compact() {
+            int kept = 0;
+            for (int i = 0; i < teams.size(); i++) {
+                int teamNumber = teams.get(i);
+                if (!removed.containsKey(teamNumber)) {
+                    teams.set(kept++, teamNumber);
+                }
+            }
+            while (teams.size() > kept) {
+                teams.removeLast();
+            }
+            removed = null;
+        }
+    }
+
+    // namesOf gives the team and university name of a registered team number
+    public TeamSearchIndex(IntFunction<String> namesOf) {
+        this.namesOf = namesOf;
+    }
+
+    public void add(int teamNumber, String teamName, String universityName) {
+        for (String text : indexedWords(teamName, universityName)) {
+            Word word = wordsByText.get(text);
+            if (word == null) {
+                word = new Word(text);
+                words.put(text, word);
+                wordsByText.put(text, word);
+                indexSpelling(word);
+            } else if (word.liveCount() == 0) {
+                words.put(text, word);
+                emptyWords--;
+            }
+            if (word.removed != null && word.removed.remove(teamNumber) >= 0) {
+                continue; // removed earlier but still in the list
+            }
+            IntList teams = word.teams;
+            // Teams usually arrive in number order; anything else is sorted
+            // once, before the next search, rather than inserted in place
+            if (word.sorted && !teams.isEmpty() && teams.get(teams.size() - 1) > teamNumber) {
+                word.sorted = false;
+                unsorted.add(word);
+            }
+            teams.add(teamNumber);
+        }
+    }
+
+    // File a new word in the trigram and deletion indexes
+    private void indexSpelling(Word word) {
+        String text = word.text;
+        if (text.startsWith(NUMBER_KEY)) {
+            return;
+        }
+        for (String trigram : trigramsOf(text)) {
+            trigrams.computeIfAbsent(trigram, k -> new ArrayList<>()).add(word);
+        }
+        // Too short to be within one typo of a query long enough for typos
+        if (text.length() < MIN_TYPO_LENGTH - 1) {
+            return;
+        }
+        // A word can only be within two typos of a query of TWO_TYPO_LENGTH or more
+        int deletions = text.length() >= TWO_TYPO_LENGTH - 2 ? 2 : 1;
+        for (int hash : deletionHashes(text, deletions).toArray()) {
+            deletionWords.add(word);
+            deletionNext.add(deletionHeads.get(hash));
+            deletionHeads.put(hash, deletionNext.size() - 1);
+        }
+    }
+
+    // Remove a team, given the names it was added with
+    public void remove(int teamNumber, String teamName, String universityName) {
+        for (String text : indexedWords(teamName, universityName)) {
+            Word word = wordsByText.get(text);
+            if (word == null || word.isRemoved(teamNumber)) {
+                continue;
+            }
+            int position = word.sorted ? word.teams.binarySearch(teamNumber) : word.teams.indexOf(teamNumber);
+            if (position < 0) {
+                continue;
+            }
+            if (word.removed == null) {
+                word.removed = new TeamIndex();
+            }
+            word.removed.put(teamNumber, 0);
+            if (word.removed.size() * 8 >= word.teams.size()) {
+                word.compact();
+            }
+            if (word.liveCount() == 0) {
+                words.remove(text);
+                emptyWords++;
+            }
+        }
+        if (emptyWords >= MIN_PURGE && emptyWords * 2 > wordsByText.size()) {
+            purgeEmptyWords();
+        }
+    }
+
+    // Forget the words without teams, rebuilding the indexes that still hold them
+    private void purgeEmptyWords() {
+        wordsByText.values().removeIf(word -> word.liveCount() == 0);
+        trigrams.clear();
+        deletionHeads.clear();
+        deletionWords.clear();
+        deletionNext.clear();
+        for (Word word : wordsByText.values()) {
+            indexSpelling(word);
+        }
+        emptyWords = 0;
+    }
+
+    // True if teams were added out of order since the last search; call
+    // sortPending (which needs exclusive access) before searching
+    public boolean needsSort() {
+        return !unsorted.isEmpty();
+    }
+
+    public void sortPending() {
+        for (Word word : unsorted) {
+            if (word.removed != null) {
+                word.compact();
+            }
+            word.teams.sort();
+            word.sorted = true;
+        }
+        unsorted.clear();
+    }
+
+    // Numbers of the best matching teams, best first, at most limit of them
+    public int[] search(String query, int limit) {
+        List<String> queryWords = new ArrayList<>();
+        List<String> numbers = new ArrayList<>();
+        for (String word : wordsOf(normalize(query))) {
+            (isNumber(word) ? numbers : queryWords).add(word);
+        }
+        IntList results = new IntList();
+        if ((queryWords.isEmpty() && numbers.isEmpty()) || limit <= 0) {
+            return results.toArray();
+        }
+
+        // Numbers narrow the walk through their keys; only the longer ones
+        // then need checking against the team's names
+        List<List<Word>> numberMatches = new ArrayList<>();
+        List<String> longNumbers = new ArrayList<>();
+        for (String number : numbers) {
+            String key = numberKey(number);
+            numberMatches.add(new ArrayList<>(words.subMap(key, true, key + Character.MAX_VALUE, false).values()));
+            if (number.length() > NUMBER_KEY_DIGITS) {
+                longNumbers.add(number);
+            }
+        }
+        TeamIndex returned = new TeamIndex();
+        if (queryWords.isEmpty()) {
+            intersect(cursors(new ArrayList<>(), numberMatches), longNumbers, returned, results, limit);
+            return results.toArray();
+        }
+
+        // matches[w][rank]: dictionary words matching query word w at that rank
+        List<List<List<Word>>> matches = new ArrayList<>();
+        for (String queryWord : queryWords) {
+            List<List<Word>> byRank = new ArrayList<>(RANKS);
+            for (int rank = 0; rank < RANKS; rank++) {
+                byRank.add(null); // found on first use
+            }
+            matches.add(byRank);
+        }
+
+        // Rank r: teams whose every query word matches at rank r or better,
+        // less those already returned at a better rank
+        for (int rank = 0; rank < RANKS && results.size() < limit; rank++) {
+            List<List<Word>> upToRank = new ArrayList<>();
+            boolean widened = false;
+            for (int w = 0; w < queryWords.size(); w++) {
+                widened |= !matchesAt(queryWords.get(w), rank, matches.get(w)).isEmpty();
+                List<Word> matching = new ArrayList<>();
+                for (int r = 0; r <= rank; r++) {
+                    matching.addAll(matchesAt(queryWords.get(w), r, matches.get(w)));
+                }
+                upToRank.add(matching);
+            }
+            if (widened) {
+                intersect(cursors(upToRank, numberMatches), longNumbers, returned, results, limit);
+            }
+        }
+        return results.toArray();
+    }
+
+    private static Cursor[] cursors(List<List<Word>> wordMatches, List<List<Word>> numberMatches) {
+        Cursor[] cursors = new Cursor[wordMatches.size() + numberMatches.size()];
+        for (int i = 0; i < wordMatches.size(); i++) {
+            cursors[i] = new Cursor(wordMatches.get(i));
+        }
+        for (int i = 0; i < numberMatches.size(); i++) {
+            cursors[wordMatches.size() + i] = new Cursor(numberMatches.get(i));
+        }
+        return cursors;
+    }
+
+    // Walk the cursors in step, collecting teams that all of them contain
+    private void intersect(Cursor[] cursors, List<String> numbers, TeamIndex returned, IntList results, int limit) {
+        long candidate = Integer.MIN_VALUE;
+        while (results.size() < limit) {
+            boolean agreed = true;
+            for (Cursor cursor : cursors) {
+                long next = cursor.seek((int) candidate);
+                if (next == END) {
+                    return;
+                }
+                if (next != candidate) {
+                    candidate = next;
+                    agreed = false;
+                    break;
+                }
+            }
+            if (!agreed) {
+                continue;
+            }
+            int teamNumber = (int) candidate;
+            if (!returned.containsKey(teamNumber) && hasNumbers(teamNumber, numbers)) {
+                returned.put(teamNumber, results.size());
+                results.add(teamNumber);
+            }
+            if (candidate == Integer.MAX_VALUE) {
+                return;
+            }
+            candidate++;
+        }
+    }
+
+    // Team numbers of any of a set of words, in ascending order
+    private static final class Cursor {
+        private final Word[] words;
+        private final int[] positions;
+
+        Cursor(List<Word> matching) {
+            words = matching.toArray(new Word[0]);
+            positions = new int[words.length];
+        }
+
+        // Smallest team number >= target, or END (targets must not decrease)
+        long seek(int target) {
+            long smallest = END;
+            for (int i = 0; i < words.length; i++) {
+                Word word = words[i];
+                IntList list = word.teams;
+                int position = list.lowerBound(positions[i], target);
+                while (position < list.size() && word.isRemoved(list.get(position))) {
+                    position++;
+                }
+                positions[i] = position;
+                if (position < list.size()) {
+                    smallest = Math.min(smallest, list.get(position));
+                }
+            }
+            return smallest;
+        }
+    }
+
+    // Dictionary words matching a query word at exactly one rank
+    private List<Word> matchesAt(String queryWord, int rank, List<List<Word>> cache) {
+        List<Word> found = cache.get(rank);
+        if (found != null) {
+            return found;
+        }
+        found = new ArrayList<>();
+        switch (rank) {
+            case EXACT:
+                Word exact = wordsByText.get(queryWord);
+                if (exact != null) {
+                    found.add(exact);
+                }
+                break;
+            case PREFIX:
+                found.addAll(words.subMap(queryWord, false, queryWord + Character.MAX_VALUE, false).values());
+                break;
+            case SUBSTRING:
+                if (queryWord.length() >= MIN_SUBSTRING_LENGTH) {
+                    // Only words sharing the query's rarest trigram can contain it
+                    List<Word> fewest = null;
+                    for (String trigram : trigramsOf(queryWord)) {
+                        List<Word> containing = trigrams.get(trigram);
+                        if (containing == null) {
+                            fewest = null;
+                            break;
+                        }
+                        if (fewest == null || containing.size() < fewest.size()) {
+                            fewest = containing;
+                        }
+                    }
+                    if (fewest != null) {
+                        for (Word word : fewest) {
+                            if (word.liveCount() > 0 && word.text.contains(queryWord) && !word.text.startsWith(queryWord)) {
+                                found.add(word);
+                            }
+                        }
+                    }
+                }
+                break;
+            case TYPO:
+                if (queryWord.length() >= MIN_TYPO_LENGTH) {
+                    int typos = queryWord.length() >= TWO_TYPO_LENGTH ? 2 : 1;
+                    // Per call, as searches run side by side under the read lock
+                    Set<Word> seen = new HashSet<>();
+                    int[][] rows = new int[3][];
+                    for (int hash : deletionHashes(queryWord, typos).toArray()) {
+                        for (int entry = deletionHeads.get(hash); entry >= 0; entry = deletionNext.get(entry)) {
+                            Word word = deletionWords.get(entry);
+                            if (!seen.add(word)) {
+                                continue;
+                            }
+                            if (word.liveCount() > 0 && Math.abs(word.text.length() - queryWord.length()) <= typos
+                                    && !word.text.contains(queryWord)
+                                    && withinEdits(queryWord, word.text, typos, rows)) {
+                                found.add(word);
+                            }
+                        }
+                    }
+                }
+        }
+        cache.set(rank, found);
+        return found;
+    }
+
+    // True if every number in the query starts a number in the team's names
+    private boolean hasNumbers(int teamNumber, List<String> numbers) {
+        if (numbers.isEmpty()) {
+            return true;
+        }
+        List<String> teamWords = wordsOf(normalize(namesOf.apply(teamNumber)));
+        for (String number : numbers) {
+            boolean found = false;
+            for (String word : teamWords) {
+                if (word.startsWith(number)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Edit distance of at most maxEdits, counting a swap of neighbouring
+    // letters as one edit ("stanfrod" -> "stanford")
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        return withinEdits(a, b, maxEdits, new int[3][]);
+    }
+
+    // The same, with three rows of scratch space (grown as needed)
+    private static boolean withinEdits(String a, String b, int maxEdits, int[][] rows) {
+        int n = a.length();
+        int m = b.length();
+        for (int r = 0; r < rows.length; r++) {
+            if (rows[r] == null || rows[r].length <= m) {
+                rows[r] = new int[Math.max(m + 1, 16)];
+            }
+        }
+        int[] beforePrevious = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] spare = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = spare;
+        }
+        return previous[m] <= maxEdits;
+    }
+
+    // Lower case without accents ("Universit\u00e9" -> "universite")
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) >= 0x80) {
+                return Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            }
+        }
+        return lower;
+    }
+
+    // Runs of letters and digits
+    static List<String> wordsOf(String text) {
+        List<String> found = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                found.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return found;
+    }
+
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Dictionary key of a number: "#" and its first three digits
+    private static String numberKey(String number) {
+        return NUMBER_KEY + number.substring(0, Math.min(number.length(), NUMBER_KEY_DIGITS));
+    }
+
+    // The distinct dictionary keys of a team's names. Reuses one list - this
+    // runs for every team loaded, so it allocates little more than the keys.
+    private List<String> indexedWords(String teamName, String universityName) {
+        keys.clear();
+        addKeys(teamName);
+        addKeys(universityName);
+        return keys;
+    }
+
+    private void addKeys(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= 0x80) {
+                for (String word : wordsOf(normalize(name))) {
+                    addKey(isNumber(word) ? numberKey(word) : word);
+                }
+                return;
+            }
+        }
+        // ASCII: the same words as wordsOf(normalize(name)), lower-cased as they are copied
+        if (keyBuffer.length < name.length() + 1) {
+            keyBuffer = new char[name.length() + 1];
+        }
+        int i = 0;
+        while (i < name.length()) {
+            char c = name.charAt(i);
+            if (!isAsciiLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+            int length = 0;
+            boolean digits = true;
+            for (; i < name.length() && isAsciiLetterOrDigit(c = name.charAt(i)); i++) {
+                digits &= c <= '9';
+                keyBuffer[length++] = c <= 'Z' ? (char) (c | 0x20) : c; // digits are unchanged
+            }
+            if (digits) {
+                addKey(NUMBER_KEY + new String(keyBuffer, 0, Math.min(length, NUMBER_KEY_DIGITS)));
+            } else {
+                addKey(new String(keyBuffer, 0, length));
+            }
+        }
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private void addKey(String key) {
+        if (!keys.contains(key)) {
+            keys.add(key);
+        }
+    }
+
+    // Hashes of the strings left by deleting up to maxDeletions letters from
+    // the start of a word (its first PREFIX_LENGTH letters), without repeats.
+    // Hashes that collide only make extra candidates, which are then checked.
+    private static IntList deletionHashes(String word, int maxDeletions) {
+        String prefix = word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+        IntList hashes = new IntList();
+        addDeletionHashes(prefix, maxDeletions, 0, hashes);
+        return hashes;
+    }
+
+    private static void addDeletionHashes(String text, int maxDeletions, int from, IntList hashes) {
+        int hash = text.hashCode();
+        if (hashes.indexOf(hash) < 0) {
+            hashes.add(hash);
+        }
+        if (maxDeletions == 0) {
+            return;
+        }
+        // Deleting from 'from' on only: each set of deletions is made once
+        for (int i = from; i < text.length(); i++) {
+            addDeletionHashes(text.substring(0, i) + text.substring(i + 1), maxDeletions - 1, i, hashes);
+        }
+    }
+
+    private static List<String> trigramsOf(String word) {
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            String trigram = word.substring(i, i + 3);
+            if (!found.contains(trigram)) {
+                found.add(trigram);
+            }
+        }
+        return found;
+    }
+}
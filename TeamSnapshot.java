@@ -0,0 +1,161 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact binary snapshot of a team store, used for fast startup.
+//
+// Layout (big-endian):
+//   header     magic "HKTS", int version, int team count, int score stride,
+//              int category count, int string count
+//   categories category names, each as int length + UTF-8 bytes
+//   strings    team names and universities (deduplicated), same encoding
+//   records    one fixed-width record per team:
+//              int number, byte kind, byte category, byte score count,
+//              byte[stride] scores, int name index, int university index,
+//              double overall score
+//
+// The CSV file stays the import/export format; a snapshot is only a cache of it.
+public class TeamSnapshot {
+    private static final int MAGIC = 0x484B5453; // "HKTS"
+    private static final int VERSION = 1;
+
+    // Write the store to a snapshot file
+    public static void write(String filename, TeamStore store) throws IOException {
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int size = store.size();
+        int[] nameIds = new int[size];
+        int[] universityIds = new int[size];
+        for (int slot = 0; slot < size; slot++) {
+            nameIds[slot] = stringId(store.getTeamName(slot), stringIds, strings);
+            universityIds[slot] = stringId(store.getUniversityName(slot), stringIds, strings);
+        }
+
+        int stride = store.getStride();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(Path.of(filename)), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            out.writeInt(stride);
+            out.writeInt(store.getCategoryCodeCount());
+            out.writeInt(strings.size());
+
+            for (int code = 0; code < store.getCategoryCodeCount(); code++) {
+                writeString(out, store.getCategoryName(code));
+            }
+            for (String s : strings) {
+                writeString(out, s);
+            }
+
+            for (int slot = 0; slot < size; slot++) {
+                out.writeInt(store.getTeamNumber(slot));
+                out.writeByte(store.getKind(slot));
+                out.writeByte(store.getCategoryCode(slot));
+                int count = store.getScoreCount(slot);
+                out.writeByte(count);
+                for (int i = 0; i < stride; i++) {
+                    out.writeByte(i < count ? store.getScore(slot, i) : 0);
+                }
+                out.writeInt(nameIds[slot]);
+                out.writeInt(universityIds[slot]);
+                out.writeDouble(store.getOverallScore(slot));
+            }
+        }
+    }
+
+    private static int stringId(String s, Map<String, Integer> ids, List<String> strings) {
+        Integer id = ids.get(s);
+        if (id == null) {
+            id = strings.size();
+            ids.put(s, id);
+            strings.add(s);
+        }
+        return id;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Read a snapshot file with a single mapped read
+    public static TeamStore read(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large: " + fileSize + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            try {
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException("Not a team snapshot: " + filename);
+                }
+                int version = buffer.getInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported snapshot version " + version);
+                }
+                int size = buffer.getInt();
+                int stride = buffer.getInt();
+                int categoryCount = buffer.getInt();
+                int stringCount = buffer.getInt();
+                if (size < 0 || stride < 0 || stride > Byte.MAX_VALUE || categoryCount < 0 || stringCount < 0) {
+                    throw new IOException("Corrupt snapshot header");
+                }
+
+                String[] categories = new String[categoryCount];
+                for (int i = 0; i < categoryCount; i++) {
+                    categories[i] = readString(buffer);
+                }
+                String[] strings = new String[stringCount];
+                for (int i = 0; i < stringCount; i++) {
+                    strings[i] = readString(buffer);
+                }
+
+                TeamStore store = new TeamStore(size);
+                byte[] scores = new byte[stride];
+                for (int slot = 0; slot < size; slot++) {
+                    int number = buffer.getInt();
+                    byte kind = buffer.get();
+                    int category = buffer.get();
+                    int count = buffer.get();
+                    buffer.get(scores, 0, stride);
+                    int name = buffer.getInt();
+                    int university = buffer.getInt();
+                    double overall = buffer.getDouble();
+                    if (count < 0 || count > stride) {
+                        throw new IOException("Corrupt snapshot record " + slot);
+                    }
+                    store.addRecord(number, strings[name], strings[university], kind, categories[category],
+                                    scores, count, overall);
+                }
+                return store;
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                throw new IOException("Corrupt snapshot: " + filename, e);
+            }
+        }
+    }
+
+    private static String readString(MappedByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Corrupt snapshot string");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable statistics snapshot - everything is gathered in a single pass
+// over the teams so summaries and reports don't rescan the list per figure
+public class TeamStatistics {
+    public static final int MAX_SCORE = 5;
+
+    private final int teamCount;
+    private final double sum;
+    private final double min;
+    private final double max;
+    private final Team highestScoringTeam;
+    private final Map<String, Integer> categoryCount;
+    private final int[] scoreHistogram;
+
+    private TeamStatistics(int teamCount, double sum, double min, double max, Team highestScoringTeam,
+                           Map<String, Integer> categoryCount, int[] scoreHistogram) {
+        this.teamCount = teamCount;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.highestScoringTeam = highestScoringTeam;
+        this.categoryCount = Collections.unmodifiableMap(categoryCount);
+        this.scoreHistogram = scoreHistogram;
+    }
+
+    // Compute all statistics in one pass over the store's columns; the score
+    // counts come from the list's histogram instead of rescanning every score
+    public static TeamStatistics compute(TeamStore store, ScoreHistogram scoreHistogram) {
+        Map<String, Integer> categoryCount = new HashMap<>();
+        int[] histogram = new int[MAX_SCORE + 1];
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            histogram[score] = scoreHistogram.getCount(score);
+        }
+        int size = store.size();
+        if (size == 0) {
+            return new TeamStatistics(0, 0, 0, 0, null, categoryCount, histogram);
+        }
+
+        int[] countsByCode = new int[store.getCategoryCodeCount()];
+        int highest = 0;
+        double highestScore = store.getOverallScore(0);
+        double sum = 0;
+        double min = highestScore;
+        double max = min;
+
+        for (int slot = 0; slot < size; slot++) {
+            double score = store.getOverallScore(slot);
+            sum += score;
+            if (score < min) {
+                min = score;
+            }
+            if (score > max) {
+                max = score;
+            }
+
+            // Ties go to the team that comes first in the list
+            if (score > highestScore) {
+                highest = slot;
+                highestScore = score;
+            }
+
+            countsByCode[store.getCategoryCode(slot)]++;
+        }
+
+        for (int code = 0; code < countsByCode.length; code++) {
+            if (countsByCode[code] > 0) {
+                categoryCount.merge(store.getCategoryName(code), countsByCode[code], Integer::sum);
+            }
+        }
+
+        return new TeamStatistics(size, sum, min, max, store.get(highest), categoryCount, histogram);
+    }
+
+    public int getTeamCount() {
+        return teamCount;
+    }
+
+    public double getAverageOverallScore() {
+        return teamCount == 0 ? 0 : sum / teamCount;
+    }
+
+    public double getMinimumOverallScore() {
+        return min;
+    }
+
+    public double getMaximumOverallScore() {
+        return max;
+    }
+
+    public Team getHighestScoringTeam() {
+        return highestScoringTeam;
+    }
+
+    // Teams per category (read-only)
+    public Map<String, Integer> getCategoryCount() {
+        return categoryCount;
+    }
+
+    // Number of times an individual score (0-5) was awarded
+    public int getScoreCount(int score) {
+        if (score < 0 || score > MAX_SCORE) {
+            return 0;
+        }
+        return scoreHistogram[score];
+    }
+}
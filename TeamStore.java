@@ -0,0 +1,432 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar (struct-of-arrays) team storage.
+// Each team occupies one slot across parallel primitive columns: team number,
+// scoring kind, category code, packed byte scores and the precomputed overall
+// score. Team objects are only built on demand by get(slot), so millions of
+// teams cost a few bytes each instead of a full object graph.
+//
+// Slots are in the order teams were added. Removing a team leaves a hole so
+// no other team moves; compact() closes the holes in one pass, keeping the
+// order. Reading a hole throws.
+//
+// The columns are split into chunks of 1024 slots that copies share (see
+// copy), so a snapshot after each edit costs O(chunks) plus one chunk copy
+// per chunk written, instead of copying every column.
+public class TeamStore {
+    // Scoring kinds - one per Team subclass
+    public static final byte CYBERSECURITY = 0;
+    public static final byte AI = 1;
+    public static final byte WEB_DEV = 2;
+    public static final byte MOBILE = 3;
+
+    private static final byte REMOVED = -1; // score count of a hole
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK = 1 << CHUNK_SHIFT; // slots per chunk
+    private static final int CHUNK_MASK = CHUNK - 1;
+
+    // The columns of CHUNK consecutive slots. A copy of the store shares its
+    // chunks with the original, so copying costs one reference per chunk; a
+    // shared chunk is copied by whichever store writes to it first.
+    private static final class Chunk {
+        final int[] numbers;
+        final String[] names;
+        final String[] universities;
+        final byte[] kinds;
+        final byte[] categories;
+        final byte[] scoreCounts;
+        byte[] scores; // 'stride' bytes per slot
+        final double[] overall;
+        boolean shared; // also held by another store (set under its lock)
+
+        Chunk(int stride) {
+            numbers = new int[CHUNK];
+            names = new String[CHUNK];
+            universities = new String[CHUNK];
+            kinds = new byte[CHUNK];
+            categories = new byte[CHUNK];
+            scoreCounts = new byte[CHUNK];
+            scores = new byte[CHUNK * stride];
+            overall = new double[CHUNK];
+        }
+
+        private Chunk(Chunk from) {
+            numbers = from.numbers.clone();
+            names = from.names.clone();
+            universities = from.universities.clone();
+            kinds = from.kinds.clone();
+            categories = from.categories.clone();
+            scoreCounts = from.scoreCounts.clone();
+            scores = from.scores.clone();
+            overall = from.overall.clone();
+        }
+    }
+
+    private Chunk[] chunks;
+    private int stride = 5;
+    private int size; // slots in use, holes included
+    private int holes;
+
+    // Category dictionary (code -> name) and university string pool
+    private List<String> categoryNames = new ArrayList<>();
+    private Map<String, Integer> categoryCodes = new HashMap<>();
+    private Map<String, String> universityPool = new HashMap<>();
+
+    public TeamStore() {
+        this(16);
+    }
+
+    public TeamStore(int capacity) {
+        chunks = new Chunk[Math.max(1, (capacity + CHUNK - 1) >>> CHUNK_SHIFT)];
+    }
+
+    // Point-in-time copy of the columns, e.g. for saving on another thread.
+    // O(chunks): the copy shares the chunks, and either store copies a chunk
+    // before changing it. Strings are shared (they are immutable); the copy
+    // pools universities afresh. Copy a store while nothing else writes to it.
+    public TeamStore copy() {
+        int used = (size + CHUNK - 1) >>> CHUNK_SHIFT;
+        TeamStore copy = new TeamStore(0);
+        copy.chunks = Arrays.copyOf(chunks, Math.max(used, 1));
+        for (int c = 0; c < used; c++) {
+            chunks[c].shared = true;
+        }
+        copy.stride = stride;
+        copy.size = size;
+        copy.holes = holes;
+        copy.categoryNames = new ArrayList<>(categoryNames);
+        copy.categoryCodes = new HashMap<>(categoryCodes);
+        return copy;
+    }
+
+    // The chunk holding a slot, ready to be written to
+    private Chunk writable(int slot) {
+        int c = slot >>> CHUNK_SHIFT;
+        Chunk chunk = chunks[c];
+        if (chunk.shared) {
+            chunk = new Chunk(chunk);
+            chunks[c] = chunk;
+        }
+        return chunk;
+    }
+
+    private Chunk chunk(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT];
+    }
+
+    private void ensureCapacity(int required) {
+        int c = (required - 1) >>> CHUNK_SHIFT;
+        if (c >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(c + 1, chunks.length << 1));
+        }
+        if (chunks[c] == null) {
+            chunks[c] = new Chunk(stride);
+        }
+    }
+
+    // Widen the packed score rows when a team has more scores than fit
+    private void ensureStride(int count) {
+        if (count <= stride) {
+            return;
+        }
+        for (int c = 0; c < chunks.length && chunks[c] != null; c++) {
+            Chunk chunk = writable(c << CHUNK_SHIFT);
+            byte[] repacked = new byte[CHUNK * count];
+            for (int i = 0; i < CHUNK; i++) {
+                System.arraycopy(chunk.scores, i * stride, repacked, i * count, stride);
+            }
+            chunk.scores = repacked;
+        }
+        stride = count;
+    }
+
+    // Scoring kind for a team, based on its subclass
+    public static byte kindOf(Team team) {
+        if (team instanceof CybersecurityTeam) return CYBERSECURITY;
+        if (team instanceof AITeam) return AI;
+        if (team instanceof WebDevTeam) return WEB_DEV;
+        if (team instanceof MobileAppTeam) return MOBILE;
+        throw new IllegalArgumentException("Unsupported team type: " + team.getClass().getName());
+    }
+
+    // Create a team of the given scoring kind
+    public static Team newTeam(byte kind, int teamNumber, String teamName, String universityName, int[] teamScores) {
+        switch (kind) {
+            case CYBERSECURITY:
+                return new CybersecurityTeam(teamNumber, teamName, universityName, teamScores);
+            case AI:
+                return new AITeam(teamNumber, teamName, universityName, teamScores);
+            case WEB_DEV:
+                return new WebDevTeam(teamNumber, teamName, universityName, teamScores);
+            default:
+                return new MobileAppTeam(teamNumber, teamName, universityName, teamScores);
+        }
+    }
+
+    private byte categoryCode(String category) {
+        Integer code = categoryCodes.get(category);
+        if (code == null) {
+            if (categoryNames.size() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many categories");
+            }
+            code = categoryNames.size();
+            categoryNames.add(category);
+            categoryCodes.put(category, code);
+        }
+        return (byte) (int) code;
+    }
+
+    // Throw if add would reject a team (its type, scores or one category too many)
+    public void check(Team team) {
+        kindOf(team);
+        checkScores(team.getScoreArray());
+        if (!categoryCodes.containsKey(team.getCategory()) && categoryNames.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many categories");
+        }
+    }
+
+    // Append a team to a new slot and return the slot
+    public int add(Team team) {
+        check(team);
+        int slot = size;
+        ensureCapacity(slot + 1);
+        write(slot, team);
+        size++;
+        return slot;
+    }
+
+    // Put another team in a slot, keeping its place in the order
+    public void set(int slot, Team team) {
+        checkSlot(slot);
+        check(team);
+        write(slot, team);
+    }
+
+    private void write(int slot, Team team) {
+        byte kind = kindOf(team);
+        int[] teamScores = team.getScoreArray();
+        ensureStride(teamScores.length);
+
+        Chunk chunk = writable(slot);
+        int i = slot & CHUNK_MASK;
+        chunk.numbers[i] = team.getTeamNumber();
+        chunk.names[i] = team.getTeamName();
+        chunk.universities[i] = universityPool.computeIfAbsent(team.getUniversityName(), u -> u);
+        chunk.kinds[i] = kind;
+        chunk.categories[i] = categoryCode(team.getCategory());
+        writeScores(chunk, i, teamScores);
+        chunk.overall[i] = ScoringEngine.score(kind, chunk.scores, i * stride, teamScores.length);
+    }
+
+    // Append a slot from already-validated raw data (used when loading a snapshot)
+    public int addRecord(int teamNumber, String teamName, String universityName, byte kind, String category,
+                         byte[] packedScores, int scoreCount, double overallScore) {
+        if (kind < CYBERSECURITY || kind > MOBILE) {
+            throw new IllegalArgumentException("Unknown team kind: " + kind);
+        }
+        int slot = size;
+        ensureCapacity(slot + 1);
+        ensureStride(scoreCount);
+
+        Chunk chunk = writable(slot);
+        int i = slot & CHUNK_MASK;
+        chunk.numbers[i] = teamNumber;
+        chunk.names[i] = teamName;
+        chunk.universities[i] = universityPool.computeIfAbsent(universityName, u -> u);
+        chunk.kinds[i] = kind;
+        chunk.categories[i] = categoryCode(category);
+        for (int k = 0; k < scoreCount; k++) {
+            if (packedScores[k] < 0 || packedScores[k] > TeamStatistics.MAX_SCORE) {
+                throw new IllegalArgumentException("Score out of range 0-" + TeamStatistics.MAX_SCORE + ": " + packedScores[k]);
+            }
+        }
+        System.arraycopy(packedScores, 0, chunk.scores, i * stride, scoreCount);
+        chunk.scoreCounts[i] = (byte) scoreCount;
+        chunk.overall[i] = overallScore;
+        size++;
+        return slot;
+    }
+
+    static void checkScores(int[] teamScores) {
+        if (teamScores.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many scores: " + teamScores.length);
+        }
+        for (int score : teamScores) {
+            if (score < 0 || score > TeamStatistics.MAX_SCORE) {
+                throw new IllegalArgumentException("Score out of range 0-" + TeamStatistics.MAX_SCORE + ": " + score);
+            }
+        }
+    }
+
+    private void writeScores(Chunk chunk, int i, int[] teamScores) {
+        int base = i * stride;
+        for (int k = 0; k < teamScores.length; k++) {
+            chunk.scores[base + k] = (byte) teamScores[k];
+        }
+        chunk.scoreCounts[i] = (byte) teamScores.length;
+    }
+
+    // Replace the scores in a slot and recompute its overall score
+    public void setScores(int slot, int[] teamScores) {
+        checkSlot(slot);
+        checkScores(teamScores);
+        ensureStride(teamScores.length);
+        Chunk chunk = writable(slot);
+        int i = slot & CHUNK_MASK;
+        writeScores(chunk, i, teamScores);
+        chunk.overall[i] = ScoringEngine.score(chunk.kinds[i], chunk.scores, i * stride, teamScores.length);
+    }
+
+    // Remove a slot, leaving a hole so the other teams keep their slots
+    public void remove(int slot) {
+        checkSlot(slot);
+        Chunk chunk = writable(slot);
+        int i = slot & CHUNK_MASK;
+        chunk.names[i] = null;
+        chunk.universities[i] = null;
+        chunk.scoreCounts[i] = REMOVED;
+        holes++;
+    }
+
+    // Number of holes left by remove since the last compact
+    public int getHoleCount() {
+        return holes;
+    }
+
+    // Close the holes, moving later slots down in order; returns the first
+    // slot whose team moved (size() if none did)
+    public int compact() {
+        if (holes == 0) {
+            return size;
+        }
+        int first = 0;
+        while (getScoreCount(first) != REMOVED) {
+            first++;
+        }
+        int kept = first;
+        for (int slot = first + 1; slot < size; slot++) {
+            if (getScoreCount(slot) == REMOVED) {
+                continue;
+            }
+            Chunk from = chunk(slot);
+            int i = slot & CHUNK_MASK;
+            Chunk to = writable(kept);
+            int k = kept & CHUNK_MASK;
+            to.numbers[k] = from.numbers[i];
+            to.names[k] = from.names[i];
+            to.universities[k] = from.universities[i];
+            to.kinds[k] = from.kinds[i];
+            to.categories[k] = from.categories[i];
+            to.scoreCounts[k] = from.scoreCounts[i];
+            System.arraycopy(from.scores, i * stride, to.scores, k * stride, stride);
+            to.overall[k] = from.overall[i];
+            kept++;
+        }
+        for (int slot = kept; slot < size; slot++) {
+            Chunk chunk = writable(slot);
+            chunk.names[slot & CHUNK_MASK] = null;
+            chunk.universities[slot & CHUNK_MASK] = null;
+        }
+        size = kept;
+        holes = 0;
+        return first;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " of " + size);
+        }
+        if (getScoreCount(slot) == REMOVED) {
+            throw new IllegalArgumentException("Slot " + slot + " was removed");
+        }
+    }
+
+    // Get a Team view of a slot (a detached copy - changes go through TeamList)
+    public Team get(int slot) {
+        checkSlot(slot);
+        Team team = build(slot);
+        team.primeOverallScore(getOverallScore(slot));
+        return team;
+    }
+
+    private Team build(int slot) {
+        Team team = newTeam(getKind(slot), getTeamNumber(slot), getTeamName(slot), getUniversityName(slot),
+                getScores(slot));
+        String category = getCategory(slot);
+        if (!category.equals(team.getCategory())) {
+            team.setCategory(category);
+        }
+        return team;
+    }
+
+    public int[] getScores(int slot) {
+        Chunk chunk = chunk(slot);
+        int i = slot & CHUNK_MASK;
+        int count = chunk.scoreCounts[i];
+        int[] teamScores = new int[count];
+        int base = i * stride;
+        for (int k = 0; k < count; k++) {
+            teamScores[k] = chunk.scores[base + k];
+        }
+        return teamScores;
+    }
+
+    // Slots in use, holes included
+    public int size() {
+        return size;
+    }
+
+    public int getTeamNumber(int slot) {
+        return chunk(slot).numbers[slot & CHUNK_MASK];
+    }
+
+    public String getTeamName(int slot) {
+        return chunk(slot).names[slot & CHUNK_MASK];
+    }
+
+    public String getUniversityName(int slot) {
+        return chunk(slot).universities[slot & CHUNK_MASK];
+    }
+
+    public byte getKind(int slot) {
+        return chunk(slot).kinds[slot & CHUNK_MASK];
+    }
+
+    public int getCategoryCode(int slot) {
+        return chunk(slot).categories[slot & CHUNK_MASK];
+    }
+
+    public String getCategory(int slot) {
+        return categoryNames.get(getCategoryCode(slot));
+    }
+
+    public double getOverallScore(int slot) {
+        return chunk(slot).overall[slot & CHUNK_MASK];
+    }
+
+    public int getScoreCount(int slot) {
+        return chunk(slot).scoreCounts[slot & CHUNK_MASK];
+    }
+
+    public int getScore(int slot, int position) {
+        return chunk(slot).scores[(slot & CHUNK_MASK) * stride + position];
+    }
+
+    // Widest score row held by any slot
+    public int getStride() {
+        return stride;
+    }
+
+    // Number of distinct category codes handed out so far
+    public int getCategoryCodeCount() {
+        return categoryNames.size();
+    }
+
+    public String getCategoryName(int code) {
+        return categoryNames.get(code);
+    }
+}
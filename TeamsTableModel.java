@@ -0,0 +1,72 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+// Table model for the teams table that reads straight from a team store.
+// Rows are a permutation of store slots (the current sort and filter), so
+// nothing is copied per row: cells are looked up, and the score formatted,
+// only when the table asks for them - i.e. for the rows on screen.
+// While teams are still loading the table shows the teams parsed so far.
+public class TeamsTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMN_NAMES = {"Team #", "Team Name", "University", "Category", "Overall Score"};
+    
+    private TeamStore store; // read only - a snapshot's store
+    private int[] slots = new int[0]; // read only - shared with the snapshot
+    private List<Team> loadingTeams = new ArrayList<>();
+    
+    // Show the given store slots, in order, as the table rows (one table event)
+    public void showTeams(TeamStore store, int[] slots) {
+        this.store = store;
+        this.slots = slots;
+        this.loadingTeams = new ArrayList<>();
+        fireTableDataChanged();
+    }
+    
+    // Append teams that were loaded so far (one table event per batch)
+    public void appendLoadingTeams(List<Team> teams) {
+        if (teams.isEmpty() || store != null) {
+            return;
+        }
+        int first = loadingTeams.size();
+        loadingTeams.addAll(teams);
+        fireTableRowsInserted(first, loadingTeams.size() - 1);
+    }
+    
+    @Override
+    public int getRowCount() {
+        return store != null ? slots.length : loadingTeams.size();
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (store == null) {
+            Team team = loadingTeams.get(row);
+            switch (column) {
+                case 0: return team.getTeamNumber();
+                case 1: return team.getTeamName();
+                case 2: return team.getUniversityName();
+                case 3: return team.getCategory();
+                default: return String.format("%.2f", team.getOverallScore());
+            }
+        }
+        int slot = slots[row];
+        switch (column) {
+            case 0: return store.getTeamNumber(slot);
+            case 1: return store.getTeamName(slot);
+            case 2: return store.getUniversityName(slot);
+            case 3: return store.getCategory(slot);
+            default: return String.format("%.2f", store.getOverallScore(slot));
+        }
+    }
+}
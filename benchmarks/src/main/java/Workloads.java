@@ -0,0 +1,107 @@
+import hackathon.benchmarks.Workload;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The work behind each JMH benchmark (see hackathon.benchmarks.HackathonBenchmarks),
+// set up on a generated dataset of the given size. It lives in the default
+// package because the application's classes do.
+public class Workloads {
+    public static Map<String, Workload> create(int teams, Path dir) throws IOException {
+        Path csv = dir.resolve("teams-" + teams + ".csv");
+        Path output = dir.resolve("out-" + teams + ".csv");
+        HackathonBenchmark.generateDataset(csv, teams);
+
+        // FileManager reports every load and save on System.out
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        TeamList list = FileManager.readTeamsFromCSV(csv.toString());
+        TeamListSnapshot snapshot = list.snapshot();
+        TeamStore store = snapshot.getStore();
+        Map<String, Workload> workloads = new LinkedHashMap<>();
+
+        workloads.put("csv.read", () -> FileManager.readTeamsFromCSV(csv.toString()));
+        workloads.put("csv.write", () -> FileManager.writeTeamsToCSV(output.toString(), store));
+
+        // The formulas themselves - getOverallScore would return the cached value
+        for (byte kind = TeamStore.CYBERSECURITY; kind <= TeamStore.MOBILE; kind++) {
+            Team[] sample = new Team[teams];
+            for (int i = 0; i < teams; i++) {
+                sample[i] = TeamStore.newTeam(kind, i, "T", "U", store.getScores(i));
+            }
+            workloads.put("score." + sample[0].getClass().getSimpleName(), () -> {
+                double sum = 0;
+                for (Team team : sample) {
+                    sum += team.calculateOverallScore();
+                }
+                return sum;
+            });
+        }
+
+        workloads.put("list.statistics", () -> TeamStatistics.compute(store, snapshot.getScoreHistogram()));
+        workloads.put("list.categoryCount", list::getCategoryCount);
+        workloads.put("list.rank", () -> new TeamList(store.copy()).snapshot());
+
+        // The sort a snapshot does the first time an order is read
+        workloads.put("sort.teamNumber", () -> sortAll(store, false));
+        workloads.put("sort.teamName", () -> sortAll(store, true));
+        workloads.put("sort.overallScore", () -> snapshot.getSlotsByOverallScore(null));
+
+        // Refreshing a name-sorted table after an edit: the kept orders merge a
+        // re-added team in one pass and aren't touched by a score change
+        list.snapshot().getSortedSlots(null, TeamListSnapshot.SortKey.TEAM_NAME);
+        Team edited = list.findTeamByNumber(100 + teams / 2);
+        workloads.put("sort.afterEdit", () -> {
+            list.removeTeam(edited.getTeamNumber());
+            list.addTeam(edited);
+            return list.snapshot().getSortedSlots(null, TeamListSnapshot.SortKey.TEAM_NAME);
+        });
+        workloads.put("sort.afterScores", () -> {
+            list.updateScores(edited.getTeamNumber(), edited.getScoreArray());
+            return list.snapshot().getSortedSlots(null, TeamListSnapshot.SortKey.TEAM_NAME);
+        });
+
+        // A read after every edit, as autosave and the table refresh do: the
+        // snapshot shares the store's unchanged chunks, and the ranking is
+        // read out of the list after the write lock is released
+        workloads.put("snapshot.afterScores", () -> {
+            list.updateScores(edited.getTeamNumber(), edited.getScoreArray());
+            return list.snapshot().getStore();
+        });
+        workloads.put("snapshot.afterScoresRanked", () -> {
+            list.updateScores(edited.getTeamNumber(), edited.getScoreArray());
+            return list.snapshot().getTopTeams(10);
+        });
+
+        workloads.put("report", () -> {
+            Writer out = Writer.nullWriter();
+            snapshot.writeReport(out);
+            return out;
+        });
+        return workloads;
+    }
+
+    // Every slot sorted by team number or by name, from scratch
+    private static int[] sortAll(TeamStore store, boolean byName) {
+        int[] slots = new int[store.size()];
+        long[] keys = new long[2 * slots.length];
+        for (int slot = 0; slot < slots.length; slot++) {
+            slots[slot] = slot;
+            if (byName) {
+                keys[2 * slot] = TeamOrder.nameKey(store.getTeamName(slot), 0);
+                keys[2 * slot + 1] = TeamOrder.nameKey(store.getTeamName(slot), 1);
+            } else {
+                keys[2 * slot] = store.getTeamNumber(slot);
+            }
+        }
+        TeamOrder.sort(slots, keys, byName ? (a, b) -> {
+            int c = store.getTeamName(a).compareTo(store.getTeamName(b));
+            return c != 0 ? c : Integer.compare(store.getTeamNumber(a), store.getTeamNumber(b));
+        } : null);
+        return slots;
+    }
+}
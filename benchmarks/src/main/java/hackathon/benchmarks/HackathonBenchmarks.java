@@ -0,0 +1,83 @@
+package hackathon.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// JMH benchmarks for the hot paths - CSV load and save, each team type's
+// scoring formula, statistics and ranking, the table sort orders and the full
+// report - on generated datasets of 1K, 100K and 1M teams. Every
+// (workload, teams) pair runs in its own forked JVM and reports ns/op.
+//
+//   mvn -B install && mvn -B -f benchmarks/pom.xml package
+//   java -jar benchmarks/target/benchmarks.jar -rf csv -rff benchmark-results.csv
+//   java -jar benchmarks/target/benchmarks.jar -p teams=1000 -p workload=report
+//   java HackathonBenchmark compare old-results.csv benchmark-results.csv
+//
+// The application's classes are in the default package, which JMH benchmarks
+// can't be, so the work itself is set up by the default-package Workloads
+// class, loaded by name once per trial and called through Workload.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HackathonBenchmarks {
+    @Param({"1000", "100000", "1000000"})
+    public int teams;
+
+    @Param({"csv.read", "csv.write",
+            "score.CybersecurityTeam", "score.AITeam", "score.WebDevTeam", "score.MobileAppTeam",
+            "list.statistics", "list.categoryCount", "list.rank",
+            "sort.teamNumber", "sort.teamName", "sort.overallScore", "sort.afterEdit", "sort.afterScores",
+            "snapshot.afterScores", "snapshot.afterScoresRanked",
+            "report"})
+    public String workload;
+
+    private Path dir;
+    private Workload work;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("hackathon-jmh");
+        Map<String, Workload> workloads = (Map<String, Workload>) Class.forName("Workloads")
+                .getMethod("create", int.class, Path.class)
+                .invoke(null, teams, dir);
+        work = workloads.get(workload);
+        if (work == null) {
+            throw new IllegalArgumentException("Unknown workload: " + workload);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object run() throws Exception {
+        return work.run();
+    }
+}
@@ -0,0 +1,7 @@
+package hackathon.benchmarks;
+
+// One piece of work to time. Returns its result so JMH can consume it and the
+// JIT cannot drop the work.
+public interface Workload {
+    Object run() throws Exception;
+}
@@ -1,3 +1,5 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -236,8 +238,10 @@ class User {
         return role;
     }
     
+    // Compares every byte, so the time taken doesn't reveal how much matched
     public boolean authenticate(String password) {
-        return this.password.equals(password);
+        return password != null && MessageDigest.isEqual(this.password.getBytes(StandardCharsets.UTF_8),
+                password.getBytes(StandardCharsets.UTF_8));
     }
     
     @Override
@@ -6,7 +6,7 @@ class CybersecurityTeam extends Team {
     }
     
     @Override
-    public double getOverallScore() {
+    protected double calculateOverallScore() {
         // Sort scores in descending order and average top 4
         int[] sortedScores = scores.clone();
         java.util.Arrays.sort(sortedScores);
@@ -22,20 +22,20 @@ class CybersecurityTeam extends Team {
 
 // AI Team - uses weighted average (weights: 1, 1.5, 2, 1.5, 1)
 class AITeam extends Team {
+    private static final double[] WEIGHTS = {1.0, 1.5, 2.0, 1.5, 1.0};
     
     public AITeam(int teamNumber, String teamName, String universityName, int[] scores) {
         super(teamNumber, teamName, universityName, "Artificial Intelligence", scores);
     }
     
     @Override
-    public double getOverallScore() {
-        double[] weights = {1.0, 1.5, 2.0, 1.5, 1.0};
+    protected double calculateOverallScore() {
         double weightedSum = 0;
         double totalWeight = 0;
         
-        for (int i = 0; i < scores.length && i < weights.length; i++) {
-            weightedSum += scores[i] * weights[i];
-            totalWeight += weights[i];
+        for (int i = 0; i < scores.length && i < WEIGHTS.length; i++) {
+            weightedSum += scores[i] * WEIGHTS[i];
+            totalWeight += WEIGHTS[i];
         }
         
         return totalWeight > 0 ? weightedSum / totalWeight : 0;
@@ -50,7 +50,7 @@ class WebDevTeam extends Team {
     }
     
     @Override
-    public double getOverallScore() {
+    protected double calculateOverallScore() {
         if (scores.length <= 2) {
             // If only 2 or fewer scores, just average them
             double sum = 0;
@@ -85,7 +85,7 @@ class MobileAppTeam extends Team {
     }
     
     @Override
-    public double getOverallScore() {
+    protected double calculateOverallScore() {
         if (scores.length == 0) return 0;
         
         double sum = 0;
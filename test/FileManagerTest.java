@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileManagerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void failedReadWritesNoSnapshot() throws IOException {
+        // A directory exists but can't be read as a file
+        Path csv = Files.createDirectory(dir.resolve("teams.csv"));
+
+        TeamList list = FileManager.readTeams(csv.toString());
+
+        assertEquals(0, list.size());
+        assertFalse(Files.exists(Path.of(FileManager.snapshotFileFor(csv.toString()))));
+    }
+
+    @Test
+    void completeReadWritesSnapshot() throws IOException {
+        Path csv = dir.resolve("teams.csv");
+        Files.writeString(csv, "TeamNumber,TeamName,University,Category,Score1,Score2,Score3,Score4,Score5\n"
+                + "7,Neural Ninjas,MIT,Artificial Intelligence,1,2,3,4,5\n", StandardCharsets.UTF_8);
+
+        TeamList list = FileManager.readTeams(csv.toString());
+
+        assertEquals(1, list.size());
+        assertTrue(Files.exists(Path.of(FileManager.snapshotFileFor(csv.toString()))));
+    }
+
+    @Test
+    void csvRoundTripKeepsNonAsciiNames() {
+        Path csv = dir.resolve("teams.csv");
+        TeamList list = new TeamList();
+        list.addTeam(new AITeam(7, "\u00c9quipe \u00dcber", "Universit\u00e9 de Montr\u00e9al", new int[]{1, 2, 3, 4, 5}));
+
+        assertTrue(FileManager.writeTeamsToCSV(csv.toString(), list));
+        Team team = FileManager.readTeamsFromCSV(csv.toString()).findTeamByNumber(7);
+
+        assertEquals("\u00c9quipe \u00dcber", team.getTeamName());
+        assertEquals("Universit\u00e9 de Montr\u00e9al", team.getUniversityName());
+    }
+
+    @Test
+    void blankLinesAreReportedAsMalformed() throws IOException {
+        Path csv = dir.resolve("teams.csv");
+        Files.writeString(csv, "TeamNumber,TeamName,University,Category,Score1,Score2,Score3,Score4,Score5\n"
+                + "7,Neural Ninjas,MIT,Artificial Intelligence,1,2,3,4,5\n"
+                + "\n"
+                + "  \r\n"
+                + "8,Data Minds,MIT,AI,1,1,1,1,1\n", StandardCharsets.UTF_8);
+        List<Integer> teams = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+
+        TeamCsvParser.parseFile(csv.toString(), new TeamCsvParser.Handler() {
+            @Override
+            public void team(Team team) {
+                teams.add(team.getTeamNumber());
+            }
+
+            @Override
+            public void error(String line, Exception e) {
+                errors.add(line);
+            }
+        });
+
+        assertEquals(List.of(7, 8), teams);
+        assertEquals(List.of("", "  "), errors);
+    }
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HackathonServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HackathonServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        HackathonModel model = new HackathonModel();
+        model.addTeam(new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5}));
+        model.addTeam(new CybersecurityTeam(8, "No Scores Yet", "MIT", new int[0]));
+        Map<String, HackathonServer.Account> accounts = Map.of(
+                "admin", new HackathonServer.Account(new User("admin", "pw", "ADMIN"), 0),
+                "alice", new HackathonServer.Account(new User("alice", "pw", "JUDGE"), 1));
+        server = new HackathonServer(model, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), accounts);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String credentials) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (credentials != null) {
+            request.header("Authorization",
+                    "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void requestsNeedCredentials() throws Exception {
+        assertEquals(401, send("GET", "/teams/7", null, null).statusCode());
+        assertEquals(401, send("GET", "/teams/7", null, "admin:wrong").statusCode());
+        assertEquals(200, send("GET", "/teams/7", null, "alice:pw").statusCode());
+    }
+
+    @Test
+    void judgesSubmitOnlyTheirOwnScores() throws Exception {
+        assertEquals(403, send("POST", "/teams/7/judges/2", "{\"scores\":[4,4,4,4]}", "alice:pw").statusCode());
+        assertEquals(403, send("POST", "/teams/7/scores", "{\"scores\":[4,4,4,4,4]}", "alice:pw").statusCode());
+        assertEquals(200, send("POST", "/teams/7/judges/1", "{\"scores\":[4,4,4,4]}", "alice:pw").statusCode());
+        assertEquals(200, send("POST", "/teams/7/scores", "{\"scores\":[4,4,4,4,4]}", "admin:pw").statusCode());
+    }
+
+    @Test
+    void emptyScoreListIsRejected() throws Exception {
+        assertEquals(400, send("POST", "/teams/7/scores", "{\"scores\":[]}", "admin:pw").statusCode());
+    }
+
+    @Test
+    void nonFiniteScoresAreWrittenAsNull() throws Exception {
+        HttpResponse<String> response = send("GET", "/teams/8", null, "admin:pw");
+        assertTrue(response.body().contains("\"overallScore\":null"), response.body());
+    }
+
+    @Test
+    void servingBeyondLoopbackNeedsAccounts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HackathonServer(new HackathonModel(), new InetSocketAddress(0), null));
+    }
+}
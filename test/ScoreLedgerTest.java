@@ -0,0 +1,48 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ScoreLedgerTest {
+
+    @Test
+    void resubmissionReplacesTheJudgesEarlierScore() {
+        ScoreLedger ledger = new ScoreLedger();
+        Team team = new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5});
+        Judge judge = new Judge(1, "Ada", "Lovelace", "ada@example.com");
+
+        ledger.submit(score(ledger, judge, team, 1));
+        ledger.submit(score(ledger, judge, team, 5));
+
+        ScoreLedger.Totals totals = ledger.getTotals(7);
+        assertEquals(1, totals.getSubmissions());
+        assertEquals(5.0, totals.getAverageScore());
+        assertEquals(1, ledger.getScores(7).size());
+    }
+
+    @Test
+    void removingATeamKeepsTheOtherTeamsScores() {
+        ScoreLedger ledger = new ScoreLedger();
+        Team kept = new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5});
+        Team removed = new AITeam(8, "Data Minds", "MIT", new int[]{1, 1, 1, 1, 1});
+        for (int judgeId = 1; judgeId <= 3; judgeId++) {
+            Judge judge = new Judge(judgeId, "Judge", "No. " + judgeId, "judge" + judgeId + "@example.com");
+            ledger.submit(score(ledger, judge, kept, judgeId));
+            ledger.submit(score(ledger, judge, removed, judgeId));
+        }
+
+        ledger.removeTeam(8);
+
+        assertNull(ledger.getTotals(8));
+        assertEquals(0, ledger.getScores(8).size());
+        assertEquals(3, ledger.getScores(7).size());
+        assertEquals(2.0, ledger.getTotals(7).getAverageScore());
+        assertEquals(1, ledger.getRankedTotals().size());
+    }
+
+    private static Score score(ScoreLedger ledger, Judge judge, Team team, int each) {
+        Score score = new Score(ledger.nextScoreId(), judge, team);
+        score.setScores(each, each, each, each);
+        return score;
+    }
+}
@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TeamJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void badRecordCutsTheTailInsteadOfFailingTheOpen() throws IOException {
+        String file = dir.resolve("teams.journal").toString();
+        long goodLength;
+        try (TeamJournal journal = TeamJournal.open(file, new TeamList())) {
+            journal.logAdd(new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5}));
+            journal.sync();
+            goodLength = journal.length();
+            // Intact on disk, but its scores are out of range so it can't be applied
+            journal.logUpdate(new AITeam(7, "Renamed", "MIT", new int[]{1, 2, 3, 4, 9}));
+            journal.logAdd(new AITeam(8, "Data Minds", "MIT", new int[]{1, 1, 1, 1, 1}));
+        }
+
+        TeamList teams = new TeamList();
+        try (TeamJournal journal = TeamJournal.open(file, teams)) {
+            assertEquals(1, teams.size());
+            assertEquals("Neural Ninjas", teams.findTeamByNumber(7).getTeamName());
+            assertEquals(goodLength, journal.length());
+        }
+        assertEquals(goodLength, Files.size(Path.of(file)));
+    }
+
+    @Test
+    void failedWriteStopsAppendsUntilReset() throws Exception {
+        String file = dir.resolve("teams.journal").toString();
+        TeamJournal journal = TeamJournal.open(file, new TeamList());
+        journal.logAdd(new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5}));
+        journal.sync();
+        long goodLength = journal.length();
+
+        // Make the next write fail
+        Field channelField = TeamJournal.class.getDeclaredField("channel");
+        channelField.setAccessible(true);
+        ((FileChannel) channelField.get(journal)).close();
+        journal.logAdd(new AITeam(8, "Data Minds", "MIT", new int[]{1, 1, 1, 1, 1}));
+
+        assertThrows(IOException.class, journal::sync);
+        assertNotNull(journal.getFailure());
+        assertEquals(goodLength, journal.length());
+        journal.logAdd(new AITeam(9, "Ignored", "MIT", new int[]{1, 1, 1, 1, 1}));
+        assertEquals(goodLength, journal.length());
+        assertThrows(IOException.class, journal::close);
+
+        TeamList teams = new TeamList();
+        try (TeamJournal reopened = TeamJournal.open(file, teams)) {
+            assertEquals(1, teams.size());
+            assertNull(reopened.getFailure());
+        }
+    }
+}
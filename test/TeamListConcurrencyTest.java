@@ -0,0 +1,137 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Writers add, replace, re-score and remove teams while readers check that
+// every snapshot they get is consistent with itself
+class TeamListConcurrencyTest {
+    private static final int TEAM_NUMBERS = 4000;
+    private static final int WRITERS = 3;
+    private static final int READERS = 3;
+    private static final long RUN_MILLIS = 2000;
+
+    @Test
+    void snapshotsStayConsistentUnderConcurrentWrites() throws InterruptedException {
+        TeamList list = new TeamList();
+        for (int n = 0; n < TEAM_NUMBERS; n += 2) {
+            list.addTeam(newTeam(n, new Random(n)));
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong snapshotsChecked = new AtomicLong();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            Random random = new Random(w);
+            threads.add(new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        write(list, random);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                    stop.set(true);
+                }
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        check(list.snapshot());
+                        snapshotsChecked.incrementAndGet();
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                    stop.set(true);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(RUN_MILLIS);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertTrue(snapshotsChecked.get() > 0);
+        check(list.snapshot());
+    }
+
+    // One random change (some are no-ops: the team is missing, or already there)
+    private static void write(TeamList list, Random random) {
+        int teamNumber = random.nextInt(TEAM_NUMBERS);
+        switch (random.nextInt(4)) {
+            case 0:
+                if (!list.containsTeam(teamNumber)) {
+                    try {
+                        list.addTeam(newTeam(teamNumber, random));
+                    } catch (IllegalArgumentException e) {
+                        // another writer added it first
+                    }
+                }
+                break;
+            case 1:
+                list.replaceTeam(newTeam(teamNumber, random));
+                break;
+            case 2:
+                list.removeTeam(teamNumber);
+                break;
+            default:
+                list.updateScores(teamNumber, scores(random));
+        }
+    }
+
+    private static Team newTeam(int teamNumber, Random random) {
+        return random.nextBoolean()
+                ? new AITeam(teamNumber, "AI " + teamNumber, "MIT", scores(random))
+                : new WebDevTeam(teamNumber, "Web " + teamNumber, "CMU", scores(random));
+    }
+
+    private static int[] scores(Random random) {
+        int[] scores = new int[5];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextInt(TeamStatistics.MAX_SCORE + 1);
+        }
+        return scores;
+    }
+
+    // Ranking order, sizes and category totals must all agree within one snapshot
+    private static void check(TeamListSnapshot snapshot) {
+        int size = snapshot.size();
+        List<Team> ranked = snapshot.getTeamsByOverallScore();
+        assertEquals(size, ranked.size(), "ranked teams");
+        for (int i = 1; i < ranked.size(); i++) {
+            Team higher = ranked.get(i - 1);
+            Team lower = ranked.get(i);
+            int c = Double.compare(higher.getOverallScore(), lower.getOverallScore());
+            assertTrue(c > 0 || c == 0 && higher.getTeamNumber() < lower.getTeamNumber(),
+                    "rank " + i + ": " + higher + " before " + lower);
+        }
+
+        TeamStatistics statistics = snapshot.getStatistics();
+        assertEquals(size, statistics.getTeamCount(), "statistics team count");
+        int categoryTotal = 0;
+        for (Map.Entry<String, Integer> entry : statistics.getCategoryCount().entrySet()) {
+            assertEquals((int) entry.getValue(), snapshot.getTeamsByCategory(entry.getKey()).size(), entry.getKey());
+            categoryTotal += entry.getValue();
+        }
+        assertEquals(size, categoryTotal, "category total");
+
+        int scoreTotal = 0;
+        for (int count : snapshot.getScoreFrequency().values()) {
+            scoreTotal += count;
+        }
+        assertEquals(5 * size, scoreTotal, "score frequency total");
+    }
+}
@@ -0,0 +1,154 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TeamListTest {
+
+    @Test
+    void rejectedScoreUpdateLeavesTeamAndHistogramUnchanged() {
+        TeamList list = new TeamList();
+        list.addTeam(new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5}));
+
+        assertThrows(IllegalArgumentException.class, () -> list.updateScores(7, new int[]{1, 1, 1, 1, 9}));
+
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, list.findTeamByNumber(7).getScoreArray());
+        list.addTeam(new AITeam(8, "Data Minds", "MIT", new int[]{1, 1, 1, 1, 1}));
+        assertEquals(Map.of(1, 6, 2, 1, 3, 1, 4, 1, 5, 1), list.getScoreFrequency());
+    }
+
+    @Test
+    void acceptedScoreUpdateMovesCounts() {
+        TeamList list = new TeamList();
+        list.addTeam(new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5}));
+
+        list.updateScores(7, new int[]{5, 5, 5, 5, 5});
+
+        assertEquals(Map.of(5, 5), list.getScoreFrequency());
+        assertEquals(5, list.getScoreHistogram().getCount(5));
+    }
+
+    @Test
+    void rejectedReplacementKeepsTheOldTeam() {
+        TeamList list = new TeamList();
+        list.addTeam(new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5}));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> list.replaceTeam(new AITeam(7, "Renamed", "MIT", new int[]{1, 1, 1, 1, 9})));
+
+        Team team = list.findTeamByNumber(7);
+        assertEquals("Neural Ninjas", team.getTeamName());
+        assertEquals(1, list.getRank(7));
+        assertEquals(1, list.searchTeams("ninjas", 10).size());
+    }
+
+    @Test
+    void replacementSwapsTeamEverywhere() {
+        TeamList list = new TeamList();
+        list.addTeam(new AITeam(7, "Neural Ninjas", "MIT", new int[]{1, 2, 3, 4, 5}));
+        list.addTeam(new AITeam(8, "Data Minds", "MIT", new int[]{3, 3, 3, 3, 3}));
+
+        assertTrue(list.replaceTeam(new WebDevTeam(7, "Web Wizards", "MIT", new int[]{5, 5, 5, 5, 5})));
+        assertFalse(list.replaceTeam(new AITeam(9, "New Team", "MIT", new int[]{0, 0, 0, 0, 0})));
+
+        assertEquals(3, list.size());
+        assertEquals("Web Wizards", list.findTeamByNumber(7).getTeamName());
+        assertEquals(1, list.getCategoryCount(list.findTeamByNumber(7).getCategory()));
+        assertTrue(list.searchTeams("ninjas", 10).isEmpty());
+        assertEquals(7, list.getTeamsByOverallScore().get(0).getTeamNumber());
+    }
+
+    @Test
+    void teamsKeepTheOrderTheyWereAddedInAcrossRemovesAndEdits() {
+        TeamList list = new TeamList();
+        for (int n = 1; n <= 6; n++) {
+            list.addTeam(new AITeam(n * 10, "Team " + n, "MIT", new int[]{n % 6, 1, 1, 1, 1}));
+        }
+        list.removeTeam(20);
+        assertEquals(List.of(10, 30, 40, 50, 60), numbers(list.getAllTeams()));
+
+        list.replaceTeam(new WebDevTeam(30, "Renamed", "CMU", new int[]{5, 5, 5, 5, 5}));
+        list.removeTeam(50);
+        list.addTeam(new AITeam(5, "Late", "MIT", new int[]{1, 1, 1, 1, 1}));
+        assertEquals(List.of(10, 30, 40, 60, 5), numbers(list.getAllTeams()));
+        assertEquals("Renamed", list.findTeamByNumber(30).getTeamName());
+        assertEquals(30, list.getTeamsByOverallScore().get(0).getTeamNumber());
+
+        // Removing most teams closes the holes without waiting for a snapshot
+        list.removeTeam(10);
+        list.removeTeam(40);
+        list.removeTeam(60);
+        assertEquals(2, list.size());
+        assertEquals(List.of(30, 5), numbers(list.getAllTeams()));
+        assertEquals(5, list.findTeamByNumber(5).getTeamNumber());
+    }
+
+    @Test
+    void highestScoringTeamTieGoesToTheFirstTeamInTheList() {
+        TeamList list = new TeamList();
+        list.addTeam(new AITeam(1950, "First", "MIT", new int[]{5, 5, 5, 5, 5}));
+        list.addTeam(new AITeam(60, "Second", "MIT", new int[]{5, 5, 5, 5, 5}));
+        list.addTeam(new AITeam(7, "Lower", "MIT", new int[]{1, 1, 1, 1, 1}));
+
+        assertEquals(1950, list.getHighestScoringTeam().getTeamNumber());
+        assertEquals(1950, list.getStatistics().getHighestScoringTeam().getTeamNumber());
+        assertTrue(list.generateReport().contains("HIGHEST SCORING TEAM:\n" + list.findTeamByNumber(1950).getFullDetails()));
+        // The leaderboard itself still breaks ties by team number
+        assertEquals(60, list.getTeamsByOverallScore().get(0).getTeamNumber());
+    }
+
+    @Test
+    void snapshotKeepsItsTeamsAndRankingAfterTheListChanges() {
+        TeamList list = new TeamList();
+        for (int n = 1; n <= 5; n++) {
+            list.addTeam(new AITeam(n, "Team " + (char) ('f' - n), "MIT", new int[]{n, n, n, n, n}));
+        }
+        TeamListSnapshot before = list.snapshot();
+        assertEquals(List.of(5, 4), numbers(before.getTopTeams(2)));
+
+        // Changes after the snapshot write to the store chunk it shares
+        list.updateScores(5, new int[]{0, 0, 0, 0, 0});
+        list.removeTeam(3);
+        list.addTeam(new AITeam(9, "Team z", "MIT", new int[]{4, 4, 4, 4, 4}));
+
+        assertEquals(5, before.getStore().getOverallScore(4));
+        assertEquals(List.of(5, 4, 3, 2, 1), numbers(before.getTeamsByOverallScore()));
+        assertEquals(List.of(5, 4, 3, 2, 1), numbers(before.getTeamsWithScoreBetween(1, 5)));
+        assertEquals(2, before.getRank(4));
+        assertArrayEquals(new int[]{4, 3, 2, 1, 0}, before.getSlotsByTeamName(null));
+        assertEquals(List.of(4, 9), numbers(list.getTopTeams(2)));
+    }
+
+    private static List<Integer> numbers(List<Team> teams) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Team team : teams) {
+            numbers.add(team.getTeamNumber());
+        }
+        return numbers;
+    }
+
+    @Test
+    void typoSearchSkipsRemovedTeamsAcrossPurges() {
+        TeamList list = new TeamList();
+        for (int n = 0; n < 300; n++) {
+            list.addTeam(new AITeam(n, "Team" + (char) ('a' + n % 26) + "x" + n, "MIT", new int[]{1, 1, 1, 1, 1}));
+        }
+        // Emptying most words makes the index rebuild its typo lookups
+        for (int n = 0; n < 300; n++) {
+            if (n != 42 && n != 43) {
+                list.removeTeam(n);
+            }
+        }
+        list.addTeam(new AITeam(500, "Teamqx500", "MIT", new int[]{1, 1, 1, 1, 1}));
+
+        assertEquals(42, list.searchTeams("teamqx24", 10).get(0).getTeamNumber()); // a swap
+        assertEquals(1, list.searchTeams("taemqx500", 10).size());
+        assertTrue(list.searchTeams("teamax0", 10).isEmpty());
+    }
+}
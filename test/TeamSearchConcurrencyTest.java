@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Searches run side by side under the read lock; each must get the same
+// answer it gets when it runs alone
+class TeamSearchConcurrencyTest {
+    private static final int TEAMS = 20000;
+    private static final int QUERIES = 200;
+    private static final int THREADS = 8;
+    private static final long RUN_MILLIS = 2000;
+
+    @Test
+    void concurrentTypoSearchesMatchSingleThreadedResults() throws InterruptedException {
+        // Few letters, so each typo query has many candidate words to check
+        Random random = new Random(5);
+        TeamList list = new TeamList();
+        for (int n = 0; n < TEAMS; n++) {
+            list.addTeam(new AITeam(n, word(random) + " " + word(random), "MIT", new int[]{1, 1, 1, 1, 1}));
+        }
+        String[] queries = new String[QUERIES];
+        List<List<Team>> expected = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = word(random);
+            expected.add(list.searchTeams(queries[i], 50));
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong searches = new AtomicLong();
+        List<String> failures = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int first = t;
+            threads.add(new Thread(() -> {
+                for (int i = first; !stop.get(); i++) {
+                    int q = i % QUERIES;
+                    List<Team> found = list.searchTeams(queries[q], 50);
+                    if (!numbers(found).equals(numbers(expected.get(q)))) {
+                        failures.add(queries[q]);
+                        stop.set(true);
+                    }
+                    searches.incrementAndGet();
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(RUN_MILLIS);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertTrue(searches.get() > QUERIES);
+    }
+
+    private static String word(Random random) {
+        int length = 5 + random.nextInt(5);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static List<Integer> numbers(List<Team> teams) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Team team : teams) {
+            numbers.add(team.getTeamNumber());
+        }
+        return numbers;
+    }
+}